@@ -0,0 +1,130 @@
+package benchmarks;
+
+import database.DatabaseConnection;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.logging.LogManager;
+
+/**
+ * BenchmarkDatabase - Creates and seeds the embedded benchmark database once per JVM.
+ * Volumes are sized like a mid-sized clinic: a few hundred doctors, thousands of patients
+ * and on the order of a thousand appointments per doctor.
+ */
+public final class BenchmarkDatabase {
+    public static final int DOCTORS = 200;
+    public static final int PATIENTS = 10_000;
+    public static final int APPOINTMENTS_PER_DOCTOR = 1_000;
+    public static final long SEED = 42L;
+
+    // Shared by every seeded user; mapping never looks inside the hash
+    private static final String PASSWORD_HASH = "$2a$12$R9h/lZssNLoY789nzS70Xunx7XnFv.zXU6l/k5yKzI0k/I1Gk6Z6e";
+    private static final String[] STATUSES = {"pending", "confirmed", "completed", "cancelled"};
+    private static final int BATCH_SIZE = 1_000;
+    private static boolean seeded;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Create the schema and seed data on first call. Doctors get ids 1..DOCTORS, patients follow.
+     */
+    public static synchronized void ensureSeeded() throws SQLException, IOException {
+        if (seeded) {
+            return;
+        }
+        // Log records are still built and dispatched, but nothing is written to the console
+        LogManager.getLogManager().reset();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            runScript(conn, "/bench-schema.sql");
+            conn.setAutoCommit(false);
+            seedUsers(conn);
+            seedAppointments(conn);
+            conn.commit();
+        }
+        seeded = true;
+    }
+
+    private static void seedUsers(Connection conn) throws SQLException {
+        String sql = "INSERT INTO users (username, password_hash, role, email, phone) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= DOCTORS + PATIENTS; i++) {
+                boolean doctor = i <= DOCTORS;
+                String username = (doctor ? "doctor" : "patient") + i;
+                stmt.setString(1, username);
+                stmt.setString(2, PASSWORD_HASH);
+                stmt.setString(3, doctor ? "doctor" : "patient");
+                stmt.setString(4, username + "@hospital.com");
+                stmt.setString(5, String.format("555-%03d-%04d", i / 10_000, i % 10_000));
+                stmt.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedAppointments(Connection conn) throws SQLException {
+        Random random = new Random(SEED);
+        LocalDate start = LocalDate.now().minusDays(180);
+        String sql = "INSERT INTO appointments (patient_id, doctor_id, appointment_date, appointment_time, status, notes) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int pending = 0;
+            for (int doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+                for (int n = 0; n < APPOINTMENTS_PER_DOCTOR; n++) {
+                    // 16 half-hour slots per day from 09:00, spread over a year
+                    LocalDate date = start.plusDays(n / 16 + random.nextInt(3));
+                    LocalTime time = LocalTime.of(9, 0).plusMinutes(30L * (n % 16));
+                    stmt.setInt(1, DOCTORS + 1 + random.nextInt(PATIENTS));
+                    stmt.setInt(2, doctorId);
+                    stmt.setDate(3, Date.valueOf(date));
+                    stmt.setTime(4, Time.valueOf(time));
+                    stmt.setString(5, STATUSES[random.nextInt(STATUSES.length)]);
+                    stmt.setString(6, random.nextInt(4) == 0 ? null : "Follow-up visit, patient reports " + n % 7 + " symptoms");
+                    stmt.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void runScript(Connection conn, String resource) throws SQLException, IOException {
+        StringBuilder script = new StringBuilder();
+        try (InputStream in = BenchmarkDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().startsWith("--")) {
+                    script.append(line).append('\n');
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : script.toString().split(";")) {
+                if (!sql.trim().isEmpty()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+}
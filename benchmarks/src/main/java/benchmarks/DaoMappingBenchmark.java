@@ -0,0 +1,74 @@
+package benchmarks;
+
+import database.AppointmentCursor;
+import database.AppointmentDAO;
+import database.Page;
+import database.UserDAO;
+import models.Appointment;
+import models.User;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * DaoMappingBenchmark - Query plus row mapping through the real DAOs
+ * (AppointmentDAO.mapAppointment, UserDAO.mapResultSetToUser) on the seeded embedded database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoMappingBenchmark {
+    private AppointmentDAO appointmentDAO;
+    private UserDAO userDAO;
+    private SplittableRandom random;
+    private AppointmentCursor cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.ensureSeeded();
+        appointmentDAO = new AppointmentDAO();
+        userDAO = new UserDAO();
+        random = new SplittableRandom(BenchmarkDatabase.SEED);
+    }
+
+    /** One 200-row page, walking forward through the whole table and wrapping at the end */
+    @Benchmark
+    public List<Appointment> appointmentPage() {
+        Page<Appointment> page = appointmentDAO.getAppointmentsPage(cursor, AppointmentDAO.MAX_PAGE_SIZE);
+        cursor = page.hasMore() ? AppointmentCursor.parse(page.getNextCursor()) : null;
+        return page.getItems();
+    }
+
+    /** All appointments of one doctor, about APPOINTMENTS_PER_DOCTOR rows */
+    @Benchmark
+    public List<Appointment> appointmentsByDoctor() {
+        return appointmentDAO.getAppointmentsByDoctor(1 + random.nextInt(BenchmarkDatabase.DOCTORS));
+    }
+
+    /** Full user table through UserDAO.getAllUsers */
+    @Benchmark
+    public List<User> allUsers() {
+        return userDAO.getAllUsers();
+    }
+
+    /** Full user table through the streaming path, without building a list */
+    @Benchmark
+    public int streamAllUsers(Blackhole blackhole) {
+        return userDAO.streamAllUsers(blackhole::consume);
+    }
+}
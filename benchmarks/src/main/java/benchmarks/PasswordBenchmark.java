@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.PasswordUtil;
+
+/**
+ * PasswordBenchmark - PasswordUtil.verifyPassword at the bcrypt costs the application may use.
+ * Reported as time per verification; each extra cost step should roughly double it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        hash = PasswordUtil.hashPassword(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public boolean verifyMatching() {
+        return PasswordUtil.verifyPassword(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean verifyWrong() {
+        return PasswordUtil.verifyPassword("wrong-password", hash);
+    }
+}
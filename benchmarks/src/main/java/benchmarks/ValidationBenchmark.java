@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ValidationUtil;
+
+/**
+ * ValidationBenchmark - ValidationUtil.isValidUser for a registration that passes and ones that fail
+ * at each field, since the failure paths build log messages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    @Param({"valid", "badUsername", "badEmail", "badPassword", "badPhone"})
+    public String input;
+
+    private String username;
+    private String email;
+    private String password;
+    private String phone;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        username = "patient1234";
+        email = "patient1234@hospital.com";
+        password = "correct-horse-battery";
+        phone = "555-123-4567";
+        switch (input) {
+            case "badUsername":
+                username = "x!";
+                break;
+            case "badEmail":
+                email = "not-an-email";
+                break;
+            case "badPassword":
+                password = "short";
+                break;
+            case "badPhone":
+                phone = "call me";
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Benchmark
+    public boolean isValidUser() {
+        return ValidationUtil.isValidUser(username, email, password, phone);
+    }
+}
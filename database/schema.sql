@@ -68,4 +68,5 @@ INSERT INTO doctor_schedules (doctor_id, day_of_week, start_time, end_time) VALU
 
 INSERT INTO system_settings (setting_key, setting_value) VALUES
 ('max_appointments_per_day', '10'),
+('appointment_slot_minutes', '30'),
 ('hospital_name', 'City Hospital');
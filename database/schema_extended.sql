@@ -33,34 +33,11 @@ CREATE TABLE IF NOT EXISTS doctor_reviews (
     FOREIGN KEY (appointment_id) REFERENCES appointments(id) ON DELETE SET NULL
 );
 
--- Doctor Statistics View
-CREATE VIEW IF NOT EXISTS doctor_statistics AS
-SELECT 
-    d.id,
-    d.username,
-    COUNT(DISTINCT a.id) as total_appointments,
-    ROUND(AVG(CASE WHEN dr.rating IS NOT NULL THEN dr.rating ELSE 0 END), 2) as average_rating,
-    COUNT(DISTINCT dr.id) as total_reviews,
-    SUM(CASE WHEN b.payment_status = 'completed' THEN b.amount ELSE 0 END) as total_revenue
-FROM users d
-LEFT JOIN appointments a ON d.id = a.doctor_id
-LEFT JOIN doctor_reviews dr ON d.id = dr.doctor_id
-LEFT JOIN billing b ON a.id = b.appointment_id
-WHERE d.role = 'doctor'
-GROUP BY d.id, d.username;
+-- Doctor statistics: a table maintained by the application, created by the
+-- V3__doctor_statistics_table migration (src/main/resources/db/migration)
 
--- Patient Billing History View
-CREATE VIEW IF NOT EXISTS patient_billing_history AS
-SELECT 
-    p.id,
-    p.username,
-    COUNT(DISTINCT b.id) as total_bills,
-    SUM(CASE WHEN b.payment_status = 'completed' THEN b.amount ELSE 0 END) as total_paid,
-    SUM(CASE WHEN b.payment_status = 'pending' THEN b.amount ELSE 0 END) as total_pending
-FROM users p
-LEFT JOIN billing b ON p.id = b.patient_id
-WHERE p.role = 'patient'
-GROUP BY p.id, p.username;
+-- Patient billing totals: a table maintained by the application, created by the
+-- V5__patient_billing_ledger migration (src/main/resources/db/migration)
 
 -- Insert sample billing data
 INSERT INTO billing (appointment_id, patient_id, doctor_id, amount, service_description, payment_status)
@@ -0,0 +1,246 @@
+package loadtest;
+
+import database.DatabaseConnection;
+import services.BillingLedgerVerifier;
+import services.DoctorStatisticsService;
+import utils.PasswordUtil;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+/**
+ * DataGenerator - Fills the database with deterministic synthetic data through batched JDBC.
+ * The same seed against the same starting database always produces the same rows.
+ * Users are named lt_doctorN / lt_patientN and share the password "password" so the load driver can log in.
+ *
+ * Usage: java -cp loadtest.jar loadtest.DataGenerator [--seed=42] [--doctors=500] [--patients=100000]
+ *        [--appointments=2000000] [--records=1000000] [--bills=1000000] [--reviews=500000] [--batch=5000]
+ *        [--start=2025-01-01]
+ * Run it against a database that has no lt_* users yet.
+ * Add rewriteBatchedStatements=true to db.url (or -Dhealthcare.db.url=...) for multi-row inserts on MySQL.
+ */
+public final class DataGenerator {
+    private static final Logger LOGGER = Logger.getLogger(DataGenerator.class.getName());
+
+    static final String PASSWORD = "password";
+    static final String DOCTOR_PREFIX = "lt_doctor";
+    static final String PATIENT_PREFIX = "lt_patient";
+    private static final int SLOTS_PER_DAY = 16;
+    private static final String[] APPOINTMENT_STATUSES = {"pending", "confirmed", "completed", "completed", "cancelled"};
+    private static final String[] PAYMENT_STATUSES = {"pending", "completed", "completed", "cancelled"};
+    private static final String[] DIAGNOSES = {"Hypertension", "Type 2 diabetes", "Seasonal allergies", "Migraine",
+            "Lower back pain", "Upper respiratory infection", "Asthma", "Anxiety disorder", "Gastritis", "Sprained ankle"};
+    private static final String[] TREATMENTS = {"Lifestyle changes and follow-up in 3 months", "Prescribed medication, 2 weeks",
+            "Physiotherapy, 6 sessions", "Rest and hydration", "Referred to specialist", "Blood work ordered"};
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Dermatology", "General Practice", "Neurology",
+            "Orthopedics", "Pediatrics", "Psychiatry"};
+    private static final String[] REVIEWS = {"Excellent doctor, very professional and caring", "Good consultation, very helpful advice",
+            "Had to wait a long time", "Explained everything clearly", "Would not recommend", "Very thorough examination"};
+
+    private final SplittableRandom random;
+    private final int batchSize;
+    private final LocalDate startDate;
+    // Hashed once at the configured cost, so the generated users log in like real ones
+    private final String passwordHash = PasswordUtil.hashPassword(PASSWORD);
+
+    private DataGenerator(long seed, int batchSize, LocalDate startDate) {
+        this.random = new SplittableRandom(seed);
+        this.batchSize = batchSize;
+        this.startDate = startDate;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Options options = new Options(args);
+        // A fixed start date keeps runs reproducible; pass --start to move the data relative to today
+        DataGenerator generator = new DataGenerator(options.getLong("seed", 42L), options.getInt("batch", 5000),
+                LocalDate.parse(options.get("start", "2025-01-01")));
+        int doctors = options.getInt("doctors", 500);
+        int patients = options.getInt("patients", 100_000);
+        long started = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            generator.insertUsers(conn, DOCTOR_PREFIX, "doctor", doctors);
+            generator.insertUsers(conn, PATIENT_PREFIX, "patient", patients);
+            int[] doctorIds = loadIds(conn, DOCTOR_PREFIX, doctors);
+            int[] patientIds = loadIds(conn, PATIENT_PREFIX, patients);
+            long firstAppointmentId = maxId(conn, "appointments") + 1;
+            generator.insertAppointments(conn, doctorIds, patientIds, options.getLong("appointments", 2_000_000L));
+            generator.insertMedicalRecords(conn, doctorIds, patientIds, options.getLong("records", 1_000_000L));
+            generator.insertBillsAndReviews(conn, firstAppointmentId,
+                    options.getLong("bills", 1_000_000L), options.getLong("reviews", 500_000L));
+        }
+        // Rows inserted here bypass the services, so rebuild the materialized doctor statistics and billing ledgers
+        DoctorStatisticsService.getInstance().reconcileAll();
+        new BillingLedgerVerifier().verify(true);
+        LOGGER.info("Data generation finished in " + (System.nanoTime() - started) / 1_000_000_000L + "s");
+        DatabaseConnection.getInstance().shutdown();
+    }
+
+    private void insertUsers(Connection conn, String prefix, String role, int count) throws SQLException {
+        String sql = "INSERT INTO users (username, password_hash, role, email, phone, specialization, consultation_fee) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        boolean doctors = "doctor".equals(role);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                String username = prefix + i;
+                stmt.setString(1, username);
+                stmt.setString(2, passwordHash);
+                stmt.setString(3, role);
+                stmt.setString(4, username + "@example.com");
+                stmt.setString(5, String.format("%03d-%03d-%04d", 200 + random.nextInt(800), random.nextInt(1000), random.nextInt(10000)));
+                stmt.setString(6, doctors ? SPECIALIZATIONS[i % SPECIALIZATIONS.length] : null);
+                stmt.setBigDecimal(7, doctors ? BigDecimal.valueOf(200 + 50 * (i % 7)) : null);
+                addToBatch(conn, stmt, i, "users");
+            }
+            flush(conn, stmt, count, "users");
+        }
+    }
+
+    /**
+     * Appointment k goes to doctor k % doctors, in that doctor's (k / doctors)-th half-hour slot,
+     * so no two active appointments ever share a doctor's slot.
+     */
+    private void insertAppointments(Connection conn, int[] doctorIds, int[] patientIds, long count) throws SQLException {
+        String sql = "INSERT INTO appointments (patient_id, doctor_id, appointment_date, appointment_time, status, notes) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (long k = 0; k < count; k++) {
+                long slot = k / doctorIds.length;
+                stmt.setInt(1, patientIds[random.nextInt(patientIds.length)]);
+                stmt.setInt(2, doctorIds[(int) (k % doctorIds.length)]);
+                stmt.setDate(3, Date.valueOf(startDate.plusDays(slot / SLOTS_PER_DAY)));
+                stmt.setTime(4, Time.valueOf(LocalTime.of(9, 0).plusMinutes(30L * (slot % SLOTS_PER_DAY))));
+                stmt.setString(5, APPOINTMENT_STATUSES[random.nextInt(APPOINTMENT_STATUSES.length)]);
+                stmt.setString(6, random.nextInt(3) == 0 ? null : "Synthetic appointment " + k);
+                addToBatch(conn, stmt, k + 1, "appointments");
+            }
+            flush(conn, stmt, count, "appointments");
+        }
+    }
+
+    private void insertMedicalRecords(Connection conn, int[] doctorIds, int[] patientIds, long count) throws SQLException {
+        String sql = "INSERT INTO medical_records (patient_id, doctor_id, record_date, diagnosis, treatment, notes) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (long k = 0; k < count; k++) {
+                stmt.setInt(1, patientIds[random.nextInt(patientIds.length)]);
+                stmt.setInt(2, doctorIds[random.nextInt(doctorIds.length)]);
+                stmt.setDate(3, Date.valueOf(startDate.plusDays(random.nextInt(730))));
+                stmt.setString(4, DIAGNOSES[random.nextInt(DIAGNOSES.length)]);
+                stmt.setString(5, TREATMENTS[random.nextInt(TREATMENTS.length)]);
+                stmt.setString(6, random.nextInt(2) == 0 ? null : "Synthetic record " + k);
+                addToBatch(conn, stmt, k + 1, "medical_records");
+            }
+            flush(conn, stmt, count, "medical_records");
+        }
+    }
+
+    /**
+     * Bills and reviews reference appointments created by this run, read back in id order.
+     */
+    private void insertBillsAndReviews(Connection conn, long firstAppointmentId, long bills, long reviews)
+            throws SQLException {
+        String billSql = "INSERT INTO billing (appointment_id, patient_id, doctor_id, amount, service_description, "
+                + "payment_status, payment_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String reviewSql = "INSERT INTO doctor_reviews (doctor_id, patient_id, appointment_id, rating, review_text, is_verified) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        String select = "SELECT id, patient_id, doctor_id, appointment_date FROM appointments WHERE id >= ? ORDER BY id";
+        long billCount = 0;
+        long reviewCount = 0;
+        // The scan needs its own connection: MySQL cannot run other statements on a connection while streaming
+        try (Connection scanConn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement scan = DatabaseConnection.getInstance().prepareStreaming(scanConn, select,
+                     DatabaseConnection.getInstance().getStreamFetchSize());
+             PreparedStatement billStmt = conn.prepareStatement(billSql);
+             PreparedStatement reviewStmt = conn.prepareStatement(reviewSql)) {
+            scan.setLong(1, firstAppointmentId);
+            try (ResultSet rs = scan.executeQuery()) {
+                while (rs.next() && (billCount < bills || reviewCount < reviews)) {
+                    int appointmentId = rs.getInt("id");
+                    int patientId = rs.getInt("patient_id");
+                    int doctorId = rs.getInt("doctor_id");
+                    LocalDate date = rs.getDate("appointment_date").toLocalDate();
+                    if (billCount < bills) {
+                        String status = PAYMENT_STATUSES[random.nextInt(PAYMENT_STATUSES.length)];
+                        billStmt.setInt(1, appointmentId);
+                        billStmt.setInt(2, patientId);
+                        billStmt.setInt(3, doctorId);
+                        billStmt.setBigDecimal(4, BigDecimal.valueOf(5000 + random.nextInt(45000), 2));
+                        billStmt.setString(5, random.nextInt(3) == 0 ? "Follow-up Consultation" : "General Consultation");
+                        billStmt.setString(6, status);
+                        billStmt.setTimestamp(7, "completed".equals(status)
+                                ? Timestamp.valueOf(date.plusDays(random.nextInt(30)).atTime(12, 0)) : null);
+                        addToBatch(conn, billStmt, ++billCount, "billing");
+                    }
+                    if (reviewCount < reviews && random.nextInt(2) == 0) {
+                        reviewStmt.setInt(1, doctorId);
+                        reviewStmt.setInt(2, patientId);
+                        reviewStmt.setInt(3, appointmentId);
+                        reviewStmt.setInt(4, 1 + random.nextInt(5));
+                        reviewStmt.setString(5, REVIEWS[random.nextInt(REVIEWS.length)]);
+                        reviewStmt.setBoolean(6, random.nextBoolean());
+                        addToBatch(conn, reviewStmt, ++reviewCount, "doctor_reviews");
+                    }
+                }
+            }
+            flush(conn, billStmt, billCount, "billing");
+            flush(conn, reviewStmt, reviewCount, "doctor_reviews");
+        }
+        if (billCount < bills || reviewCount < reviews) {
+            LOGGER.warning("Not enough appointments for the requested bills/reviews, created "
+                    + billCount + " bills and " + reviewCount + " reviews");
+        }
+    }
+
+    private void addToBatch(Connection conn, PreparedStatement stmt, long rowNumber, String table) throws SQLException {
+        stmt.addBatch();
+        if (rowNumber % batchSize == 0) {
+            stmt.executeBatch();
+            conn.commit();
+            if (rowNumber % (batchSize * 100L) == 0) {
+                LOGGER.info(table + ": " + rowNumber + " rows");
+            }
+        }
+    }
+
+    private void flush(Connection conn, PreparedStatement stmt, long total, String table) throws SQLException {
+        stmt.executeBatch();
+        conn.commit();
+        LOGGER.info(table + ": " + total + " rows inserted");
+    }
+
+    static int[] loadIds(Connection conn, String prefix, int count) throws SQLException {
+        int[] ids = new int[count];
+        int n = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id FROM users WHERE username LIKE ? ORDER BY id LIMIT ?")) {
+            stmt.setString(1, prefix + "%");
+            stmt.setInt(2, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids[n++] = rs.getInt(1);
+                }
+            }
+        }
+        if (n < count) {
+            throw new SQLException("Expected " + count + " users named " + prefix + "N but found " + n);
+        }
+        return ids;
+    }
+
+    static long maxId(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM " + table);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+}
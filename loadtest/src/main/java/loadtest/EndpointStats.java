@@ -0,0 +1,81 @@
+package loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * EndpointStats - Latency histogram and error count for one endpoint of the load test.
+ * Latencies are recorded in microseconds into a wait-free HdrHistogram Recorder.
+ */
+final class EndpointStats {
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private Histogram result;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long elapsedNanos, boolean error) {
+        recorder.recordValue(Math.min(MAX_TRACKABLE_MICROS, Math.max(1L, elapsedNanos / 1000L)));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure() {
+        errors.increment();
+    }
+
+    /**
+     * Drop everything recorded so far, used when the warmup period ends
+     */
+    void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    /**
+     * Freeze the measurement period's histogram
+     */
+    void finish() {
+        result = recorder.getIntervalHistogram();
+    }
+
+    long getCount() {
+        return result.getTotalCount();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return result.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double meanMillis() {
+        return result.getMean() / 1000.0;
+    }
+
+    double maxMillis() {
+        return result.getMaxValue() / 1000.0;
+    }
+
+    /**
+     * Full percentile distribution in HdrHistogram's .hgrm format, in milliseconds
+     */
+    void printDistribution(PrintStream out) {
+        result.outputPercentileDistribution(out, 1000.0);
+    }
+}
@@ -0,0 +1,152 @@
+package loadtest;
+
+import database.AppointmentDAO;
+import database.AppointmentViewDAO;
+import database.AppointmentViewFilter;
+import database.BillingExportDAO;
+import database.DatabaseConnection;
+import database.DoctorScheduleDAO;
+import database.MedicalRecordDAO;
+import database.PatientDAO;
+import database.UserDAO;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * ExplainCheck - Runs EXPLAIN on the filtered DAO queries and fails if any of them scans a whole table
+ * or a whole index (EXPLAIN type ALL or index). Only the first page of the keyset pagination may read
+ * the index in order from the start, since its LIMIT stops the scan after one page.
+ * Run it against a database filled by DataGenerator so the optimizer sees realistic row counts.
+ * The SQL is taken from the DAOs' query constants, so the plans checked are those of the queries the application runs.
+ * Queries that list a whole table on purpose (getAll*, streamAll*) are not checked.
+ *
+ * Usage: java -cp loadtest.jar loadtest.ExplainCheck
+ * Exits with status 1 if a query plan contains a full table or index scan.
+ */
+public final class ExplainCheck {
+    private static final Logger LOGGER = Logger.getLogger(ExplainCheck.class.getName());
+
+    private final List<CheckedQuery> queries = new ArrayList<>();
+
+    private ExplainCheck() {}
+
+    public static void main(String[] args) throws SQLException {
+        int failures;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            int doctorId = firstId(conn, "doctor");
+            int patientId = firstId(conn, "patient");
+            Date today = Date.valueOf(LocalDate.now());
+            ExplainCheck check = new ExplainCheck();
+            check.add("UserDAO.getUserById", UserDAO.SELECT_BY_ID, 1);
+            check.add("UserDAO.getUserByUsername", UserDAO.SELECT_BY_USERNAME, "admin");
+            check.add("PatientDAO.getPatientsByIds", PatientDAO.SELECT_BY_IDS + " IN (?, ?)", patientId, patientId + 1);
+            check.add("AppointmentDAO.getAppointmentsByPatient", AppointmentDAO.SELECT_BY_PATIENT, patientId);
+            check.add("AppointmentDAO.getAppointmentsByDoctor", AppointmentDAO.SELECT_BY_DOCTOR, doctorId);
+            check.add("AppointmentDAO.getUpcomingAppointmentsByDoctor", AppointmentDAO.SELECT_UPCOMING_BY_DOCTOR,
+                    doctorId, today);
+            check.add("AppointmentDAO.countActiveAppointments", AppointmentDAO.COUNT_ACTIVE, doctorId, today);
+            check.addLimited("AppointmentDAO.getAppointmentsPage", AppointmentDAO.SELECT_FIRST_PAGE, 51);
+            check.add("AppointmentDAO.getAppointmentsPage after a cursor", AppointmentDAO.SELECT_PAGE_AFTER,
+                    today, today, today, Time.valueOf(LocalTime.NOON), Time.valueOf(LocalTime.NOON), 0, 51);
+            check.addView("AppointmentViewDAO by doctor",
+                    new AppointmentViewFilter().setDoctorId(doctorId).setFromDate(LocalDate.now()));
+            check.addView("AppointmentViewDAO by patient", new AppointmentViewFilter().setPatientId(patientId));
+            check.add("MedicalRecordDAO.getRecordsByPatient", MedicalRecordDAO.SELECT_BY_PATIENT, patientId);
+            check.add("DoctorScheduleDAO.getScheduleByDoctor", DoctorScheduleDAO.SELECT_BY_DOCTOR, doctorId);
+            check.add("AppointmentDAO.getUninvoicedCompletedAppointments", AppointmentDAO.SELECT_UNINVOICED_COMPLETED,
+                    doctorId, 0, 10_000);
+            check.add("BillingExportDAO.streamBills", BillingExportDAO.SELECT_EXPORT,
+                    today, Date.valueOf(LocalDate.now().plusDays(1)));
+            failures = check.run(conn);
+        } finally {
+            DatabaseConnection.getInstance().shutdown();
+        }
+        if (failures > 0) {
+            LOGGER.severe(failures + " queries scan a whole table or index");
+            System.exit(1);
+        }
+        LOGGER.info("No full table or index scans found");
+    }
+
+    private void add(String name, String sql, Object... params) {
+        queries.add(new CheckedQuery(name, sql, false, params));
+    }
+
+    // A query whose LIMIT ends an in-order index scan after one page
+    private void addLimited(String name, String sql, Object... params) {
+        queries.add(new CheckedQuery(name, sql, true, params));
+    }
+
+    private void addView(String name, AppointmentViewFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = AppointmentViewDAO.selectQuery(filter, null, params);
+        params.add(51);
+        queries.add(new CheckedQuery(name, sql, false, params.toArray()));
+    }
+
+    /**
+     * Explain every query and print its plan.
+     * @return the number of queries with at least one full table or index scan
+     */
+    private int run(Connection conn) throws SQLException {
+        int failures = 0;
+        for (CheckedQuery query : queries) {
+            boolean fullScan = false;
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+                for (int p = 0; p < query.params.length; p++) {
+                    stmt.setObject(p + 1, query.params[p]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String type = rs.getString("type");
+                        fullScan |= "ALL".equals(type) || ("index".equals(type) && !query.limited);
+                        plan.append(String.format("    %-6s %-8s key=%s rows=%s %s%n", rs.getString("table"), type,
+                                rs.getString("key"), rs.getString("rows"), nullToEmpty(rs.getString("Extra"))));
+                    }
+                }
+            }
+            if (fullScan) {
+                failures++;
+            }
+            System.out.print((fullScan ? "FULL SCAN " : "ok        ") + query.name + System.lineSeparator() + plan);
+        }
+        return failures;
+    }
+
+    private static int firstId(Connection conn, String role) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MIN(id) FROM users WHERE role = ?")) {
+            stmt.setString(1, role);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 1;
+            }
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static final class CheckedQuery {
+        final String name;
+        final String sql;
+        final boolean limited;
+        final Object[] params;
+
+        CheckedQuery(String name, String sql, boolean limited, Object[] params) {
+            this.name = name;
+            this.sql = sql;
+            this.limited = limited;
+            this.params = params;
+        }
+    }
+}
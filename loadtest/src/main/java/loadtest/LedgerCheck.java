@@ -0,0 +1,34 @@
+package loadtest;
+
+import database.DatabaseConnection;
+import services.BillingLedgerVerifier;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * LedgerCheck - Verifies every patient's billing ledger against the billing table.
+ *
+ * Usage: java -cp loadtest.jar loadtest.LedgerCheck [--repair=true]
+ * Exits with status 1 if a ledger drifted or a chunk could not be checked; with --repair=true
+ * drifted ledgers are overwritten with the recomputed totals first.
+ */
+public final class LedgerCheck {
+    private static final Logger LOGGER = Logger.getLogger(LedgerCheck.class.getName());
+
+    private LedgerCheck() {}
+
+    public static void main(String[] args) throws SQLException {
+        Options options = new Options(args);
+        BillingLedgerVerifier.Result result;
+        try {
+            result = new BillingLedgerVerifier().verify(Boolean.parseBoolean(options.get("repair", "false")));
+        } finally {
+            DatabaseConnection.getInstance().shutdown();
+        }
+        if (!result.isClean()) {
+            LOGGER.severe(result.getDrifts().size() + " ledgers drifted, " + result.getFailedChunks() + " chunks failed");
+            System.exit(1);
+        }
+        LOGGER.info("All billing ledgers match the billing table");
+    }
+}
@@ -0,0 +1,331 @@
+package loadtest;
+
+import controller.AppointmentServlet;
+import controller.DoctorServlet;
+import controller.PatientServlet;
+import controller.UserServlet;
+import database.DatabaseConnection;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * LoadDriver - Runs the servlets in an embedded Jetty and drives them with concurrent virtual users.
+ * Each virtual user logs in as one of the generated patients, then loops over a weighted mix of
+ * booking, appointment, doctor and patient requests until the run ends (closed model: a user sends its next
+ * request when the previous one returns, after the optional think time).
+ * Latency per endpoint is reported as p50/p99/p99.9 plus a full HdrHistogram percentile distribution.
+ *
+ * Usage: java -cp loadtest.jar loadtest.LoadDriver [--users=50] [--duration=60] [--warmup=10]
+ *        [--think=0] [--threads=200] [--report=loadtest-report.txt] [--doctors=500] [--patients=100000]
+ * Load the data with DataGenerator first, using the same --doctors and --patients.
+ */
+public final class LoadDriver {
+    private static final Logger LOGGER = Logger.getLogger(LoadDriver.class.getName());
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private final String baseUrl;
+    private final int[] doctorIds;
+    private final int[] patientIds;
+    private final long minAppointmentId;
+    private final long maxAppointmentId;
+    private final long thinkMillis;
+    private volatile boolean running = true;
+
+    private LoadDriver(String baseUrl, int[] doctorIds, int[] patientIds, long minAppointmentId,
+                       long maxAppointmentId, long thinkMillis) {
+        this.baseUrl = baseUrl;
+        this.doctorIds = doctorIds;
+        this.patientIds = patientIds;
+        this.minAppointmentId = minAppointmentId;
+        this.maxAppointmentId = maxAppointmentId;
+        this.thinkMillis = thinkMillis;
+        for (Operation op : Operation.values()) {
+            endpoints.put(op.label, new EndpointStats(op.label));
+        }
+    }
+
+    /** Request mix; weights are relative */
+    private enum Operation {
+        LOGIN("POST /user (login)", 5),
+        BOOK_APPOINTMENT("POST /appointments", 5),
+        LIST_APPOINTMENTS("GET /appointments", 25),
+        VIEW_APPOINTMENT("GET /appointments?action=view", 25),
+        LIST_DOCTORS("GET /doctors", 10),
+        VIEW_DOCTOR("GET /doctors?action=view", 15),
+        VIEW_PATIENT("GET /patients?action=view", 15);
+
+        private static final int TOTAL_WEIGHT = totalWeight();
+        private final String label;
+        private final int weight;
+
+        Operation(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        static Operation pick(SplittableRandom random) {
+            int roll = random.nextInt(TOTAL_WEIGHT);
+            for (Operation op : values()) {
+                roll -= op.weight;
+                if (roll < 0) {
+                    return op;
+                }
+            }
+            return LIST_APPOINTMENTS;
+        }
+
+        private static int totalWeight() {
+            int total = 0;
+            for (Operation op : values()) {
+                total += op.weight;
+            }
+            return total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int users = options.getInt("users", 50);
+        long durationSeconds = options.getLong("duration", 60L);
+        long warmupSeconds = options.getLong("warmup", 10L);
+
+        // Every virtual user connects from loopback, so lift the per-address login limit unless set explicitly
+        System.setProperty("healthcare.auth.rateLimit.maxPerAddress",
+                System.getProperty("healthcare.auth.rateLimit.maxPerAddress", String.valueOf(Integer.MAX_VALUE)));
+        System.setProperty("healthcare.auth.rateLimit.maxPerUsername",
+                System.getProperty("healthcare.auth.rateLimit.maxPerUsername", String.valueOf(Integer.MAX_VALUE)));
+
+        Server server = startServer(options.getInt("port", 0), options.getInt("threads", 200));
+        int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+        LoadDriver driver;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            driver = new LoadDriver("http://localhost:" + port,
+                    DataGenerator.loadIds(conn, DataGenerator.DOCTOR_PREFIX, options.getInt("doctors", 500)),
+                    DataGenerator.loadIds(conn, DataGenerator.PATIENT_PREFIX, options.getInt("patients", 100_000)),
+                    1L, Math.max(1L, DataGenerator.maxId(conn, "appointments")),
+                    options.getLong("think", 0L));
+        }
+
+        LOGGER.info("Running " + users + " virtual users against " + driver.baseUrl
+                + " for " + warmupSeconds + "s warmup + " + durationSeconds + "s");
+        driver.run(users, options.getLong("seed", 42L), warmupSeconds, durationSeconds);
+        server.stop();
+
+        String reportPath = options.get("report", "loadtest-report.txt");
+        try (PrintStream out = new PrintStream(new FileOutputStream(reportPath), true, "UTF-8")) {
+            driver.printReport(out, users, durationSeconds, true);
+        }
+        driver.printReport(System.out, users, durationSeconds, false);
+        LOGGER.info("Report written to " + reportPath);
+        DatabaseConnection.getInstance().shutdown();
+    }
+
+    private static Server startServer(int port, int threads) throws Exception {
+        Server server = new Server(new QueuedThreadPool(threads));
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(port);
+        server.addConnector(connector);
+
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/");
+        context.addServlet(UserServlet.class, "/user").setAsyncSupported(true);
+        context.addServlet(AppointmentServlet.class, "/appointments");
+        context.addServlet(DoctorServlet.class, "/doctors");
+        context.addServlet(PatientServlet.class, "/patients");
+        context.addServlet(ViewStubServlet.class, "*.jsp");
+        server.setHandler(context);
+        server.start();
+        return server;
+    }
+
+    private void run(int users, long seed, long warmupSeconds, long durationSeconds) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(users, r -> {
+            Thread t = new Thread(r, "virtual-user");
+            t.setDaemon(true);
+            return t;
+        });
+        CountDownLatch done = new CountDownLatch(users);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < users; i++) {
+            SplittableRandom random = seeds.split();
+            pool.execute(() -> {
+                try {
+                    new VirtualUser(random).loop();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        for (EndpointStats stats : endpoints.values()) {
+            stats.reset();
+        }
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        running = false;
+        for (EndpointStats stats : endpoints.values()) {
+            stats.finish();
+        }
+        done.await(30, TimeUnit.SECONDS);
+        pool.shutdownNow();
+    }
+
+    private void printReport(PrintStream out, int users, long durationSeconds, boolean withDistributions) {
+        out.printf("Load test: %d virtual users, %ds measured%n%n", users, durationSeconds);
+        out.printf("%-32s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats stats : endpoints.values()) {
+            out.printf("%-32s %10d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.getName(), stats.getCount(), stats.getErrors(),
+                    stats.getCount() / (double) Math.max(1L, durationSeconds), stats.meanMillis(),
+                    stats.percentileMillis(50.0), stats.percentileMillis(99.0),
+                    stats.percentileMillis(99.9), stats.maxMillis());
+        }
+        if (withDistributions) {
+            for (EndpointStats stats : endpoints.values()) {
+                out.printf("%n# %s (values in ms)%n", stats.getName());
+                stats.printDistribution(out);
+            }
+        }
+    }
+
+    /**
+     * One simulated patient with its own cookie jar (and therefore its own session)
+     */
+    private final class VirtualUser {
+        private final SplittableRandom random;
+        private final HttpClient client;
+        private String appointmentCursor;
+        private int patientIndex;
+
+        VirtualUser(SplittableRandom random) {
+            this.random = random;
+            this.client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+        }
+
+        void loop() {
+            execute(Operation.LOGIN);
+            while (running) {
+                execute(Operation.pick(random));
+                if (thinkMillis > 0) {
+                    try {
+                        Thread.sleep(thinkMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void execute(Operation op) {
+            HttpRequest request = build(op);
+            EndpointStats stats = endpoints.get(op.label);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long elapsed = System.nanoTime() - start;
+                // Logins answer with a redirect, back to the login page if they failed;
+                // 404s are expected for ids that were never generated
+                boolean error = response.statusCode() >= 500
+                        || (response.statusCode() >= 400 && response.statusCode() != 404)
+                        || (op == Operation.LOGIN && isLoginRedirect(response));
+                stats.record(elapsed, error);
+                if (op == Operation.LIST_APPOINTMENTS) {
+                    appointmentCursor = parseNextCursor(response.body());
+                }
+            } catch (IOException e) {
+                stats.recordFailure();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+
+        private boolean isLoginRedirect(HttpResponse<String> response) {
+            return response.headers().firstValue("Location")
+                    .map(location -> location.contains("action=login"))
+                    .orElse(false);
+        }
+
+        private HttpRequest build(Operation op) {
+            switch (op) {
+                case LOGIN:
+                    patientIndex = random.nextInt(patientIds.length);
+                    String username = DataGenerator.PATIENT_PREFIX + (1 + patientIndex);
+                    String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                            + "&password=" + URLEncoder.encode(DataGenerator.PASSWORD, StandardCharsets.UTF_8);
+                    return request("/user")
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(form))
+                            .build();
+                case BOOK_APPOINTMENT:
+                    // A half-hour slot during clinic hours in the next 60 days; taken slots are part of the mix
+                    LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(60));
+                    LocalTime time = LocalTime.of(9, 0).plusMinutes(30L * random.nextInt(16));
+                    String booking = "patient_id=" + patientIds[patientIndex]
+                            + "&doctor_id=" + doctorIds[random.nextInt(doctorIds.length)]
+                            + "&appointment_date=" + date + "&appointment_time=" + time;
+                    return request("/appointments")
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(booking))
+                            .build();
+                case LIST_APPOINTMENTS:
+                    // Follow the cursor like a user paging forward, starting over now and then
+                    String after = appointmentCursor == null || random.nextInt(5) == 0 ? "" : "&after=" + appointmentCursor;
+                    return request("/appointments?limit=50" + after).GET().build();
+                case VIEW_APPOINTMENT:
+                    long id = minAppointmentId + random.nextLong(maxAppointmentId - minAppointmentId + 1);
+                    return request("/appointments?action=view&id=" + id).GET().build();
+                case LIST_DOCTORS:
+                    return request("/doctors").GET().build();
+                case VIEW_DOCTOR:
+                    return request("/doctors?action=view&id=" + doctorIds[random.nextInt(doctorIds.length)]).GET().build();
+                case VIEW_PATIENT:
+                default:
+                    return request("/patients?action=view&id=" + patientIds[random.nextInt(patientIds.length)]).GET().build();
+            }
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        }
+
+        private String parseNextCursor(String body) {
+            for (String line : body.split("\n")) {
+                if (line.startsWith("nextCursor=")) {
+                    String cursor = line.substring("nextCursor=".length()).trim();
+                    return cursor.isEmpty() ? null : cursor;
+                }
+            }
+            return null;
+        }
+    }
+}
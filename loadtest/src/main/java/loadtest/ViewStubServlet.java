@@ -0,0 +1,40 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Enumeration;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * ViewStubServlet - Stands in for the JSP views when the servlets run without a JSP engine.
+ * Answers forwards with a plain-text summary of the request attributes, so load tests measure
+ * the servlet and database work rather than page rendering.
+ */
+public class ViewStubServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("view=" + request.getServletPath());
+        Enumeration<String> names = request.getAttributeNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (name.startsWith("javax.") || name.startsWith("org.eclipse.")) {
+                continue;
+            }
+            Object value = request.getAttribute(name);
+            if (value instanceof Collection) {
+                out.println(name + ".size=" + ((Collection<?>) value).size());
+            } else if (value instanceof String || value instanceof Number) {
+                out.println(name + "=" + value);
+            } else if (value != null) {
+                out.println(name + ".type=" + value.getClass().getSimpleName());
+            }
+        }
+    }
+}
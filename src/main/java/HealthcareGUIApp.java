@@ -1,4 +1,6 @@
 import javafx.application.Application;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -8,6 +10,8 @@ import javafx.stage.Stage;
 import javafx.geometry.Pos;
 import database.*;
 import models.*;
+import services.DoctorStatisticsService;
+import utils.IntObjectMap;
 import utils.PasswordUtil;
 import java.util.List;
 import java.util.logging.Level;
@@ -23,6 +27,7 @@ public class HealthcareGUIApp extends Application {
     private Stage primaryStage;
     private UserDAO userDAO;
     private AppointmentDAO appointmentDAO;
+    private AppointmentViewDAO appointmentViewDAO;
     private DoctorDAO doctorDAO;
     private PatientDAO patientDAO;
     private MedicalRecordDAO medicalRecordDAO;
@@ -33,6 +38,7 @@ public class HealthcareGUIApp extends Application {
         // Initialize DAOs safely using updated constructors
         userDAO = new UserDAO();
         appointmentDAO = new AppointmentDAO();
+        appointmentViewDAO = new AppointmentViewDAO();
         doctorDAO = new DoctorDAO();
         patientDAO = new PatientDAO();
         medicalRecordDAO = new MedicalRecordDAO();
@@ -177,16 +183,33 @@ public class HealthcareGUIApp extends Application {
         Label welcomeLabel = new Label("Welcome Doctor: " + currentUser.getUsername());
         welcomeLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
 
+        DoctorStatistics stats = DoctorStatisticsService.getInstance().getStatistics(currentUser.getId());
+        Label statsLabel = new Label(stats == null ? "No statistics yet" : String.format(
+                "Appointments: %d (%d cancelled)   Rating: %.2f from %d reviews   Revenue: %s",
+                stats.getTotalAppointments(), stats.getCancelledAppointments(), stats.getAverageRating(),
+                stats.getTotalReviews(), stats.getTotalRevenue()));
+
         TableView<Appointment> appointmentsTable = new TableView<>();
         TableColumn<Appointment, Integer> aptIdCol = new TableColumn<>("ID");
         TableColumn<Appointment, Integer> patientCol = new TableColumn<>("Patient ID");
+        TableColumn<Appointment, String> patientNameCol = new TableColumn<>("Patient");
         TableColumn<Appointment, String> statusCol = new TableColumn<>("Status");
-        appointmentsTable.getColumns().addAll(aptIdCol, patientCol, statusCol);
+        appointmentsTable.getColumns().addAll(aptIdCol, patientCol, patientNameCol, statusCol);
 
         List<Appointment> appointments = appointmentDAO.getAppointmentsByDoctor(currentUser.getId());
+        // Resolve all patient names in one lookup instead of one query per row
+        int[] patientIds = new int[appointments.size()];
+        for (int i = 0; i < patientIds.length; i++) {
+            patientIds[i] = appointments.get(i).getPatientId();
+        }
+        IntObjectMap<Patient> patients = patientDAO.getPatientsByIds(patientIds);
+        patientNameCol.setCellValueFactory(cell -> {
+            Patient patient = patients.get(cell.getValue().getPatientId());
+            return new ReadOnlyStringWrapper(patient != null ? patient.getUsername() : "");
+        });
         appointmentsTable.getItems().addAll(appointments);
 
-        centerContent.getChildren().addAll(welcomeLabel, new Separator(), new Label("Your Appointments:"), appointmentsTable);
+        centerContent.getChildren().addAll(welcomeLabel, statsLabel, new Separator(), new Label("Your Appointments:"), appointmentsTable);
 
         root.setTop(menuBar);
         root.setLeft(sidebar);
@@ -214,14 +237,29 @@ public class HealthcareGUIApp extends Application {
         Label welcomeLabel = new Label("Welcome Patient: " + currentUser.getUsername());
         welcomeLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
 
-        TableView<Appointment> appointmentsTable = new TableView<>();
-        TableColumn<Appointment, Integer> aptIdCol = new TableColumn<>("ID");
-        TableColumn<Appointment, Integer> doctorCol = new TableColumn<>("Doctor ID");
-        TableColumn<Appointment, String> statusCol = new TableColumn<>("Status");
-        appointmentsTable.getColumns().addAll(aptIdCol, doctorCol, statusCol);
-
-        List<Appointment> appointments = appointmentDAO.getAppointmentsByPatient(currentUser.getId());
-        appointmentsTable.getItems().addAll(appointments);
+        TableView<AppointmentView> appointmentsTable = new TableView<>();
+        TableColumn<AppointmentView, Integer> aptIdCol = new TableColumn<>("ID");
+        TableColumn<AppointmentView, String> doctorCol = new TableColumn<>("Doctor");
+        TableColumn<AppointmentView, String> dateCol = new TableColumn<>("Date");
+        TableColumn<AppointmentView, String> statusCol = new TableColumn<>("Status");
+        TableColumn<AppointmentView, String> billingCol = new TableColumn<>("Billing");
+        aptIdCol.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getId()));
+        doctorCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getDoctorUsername()));
+        dateCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(
+                cell.getValue().getAppointmentDate() + " " + cell.getValue().getAppointmentTime()));
+        statusCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getStatus()));
+        billingCol.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getBillingStatus()));
+        appointmentsTable.getColumns().addAll(aptIdCol, doctorCol, dateCol, statusCol, billingCol);
+
+        // Names and billing status come from the same query as the appointments; follow the cursor to the last page
+        AppointmentViewFilter filter = new AppointmentViewFilter().setPatientId(currentUser.getId());
+        Page<AppointmentView> page = appointmentViewDAO.getAppointmentViews(filter, null, AppointmentDAO.MAX_PAGE_SIZE);
+        appointmentsTable.getItems().addAll(page.getItems());
+        while (page.hasMore()) {
+            page = appointmentViewDAO.getAppointmentViews(filter,
+                    AppointmentCursor.parse(page.getNextCursor()), AppointmentDAO.MAX_PAGE_SIZE);
+            appointmentsTable.getItems().addAll(page.getItems());
+        }
 
         centerContent.getChildren().addAll(welcomeLabel, new Separator(), new Label("Your Appointments:"), appointmentsTable);
 
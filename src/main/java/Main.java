@@ -1,5 +1,9 @@
 import database.*;
 import models.*;
+import services.AppointmentService;
+import services.BookingResult;
+import services.DoctorStatisticsService;
+import utils.IntObjectMap;
 import java.util.*;
 
 /**
@@ -9,6 +13,8 @@ public class Main {
     private static Scanner scanner = new Scanner(System.in);
     private static UserDAO userDAO = new UserDAO();
     private static AppointmentDAO appointmentDAO = new AppointmentDAO();
+    private static AppointmentViewDAO appointmentViewDAO = new AppointmentViewDAO();
+    private static AppointmentService appointmentService = new AppointmentService();
     private static DoctorDAO doctorDAO = new DoctorDAO();
     private static PatientDAO patientDAO = new PatientDAO();
     private static MedicalRecordDAO medicalRecordDAO = new MedicalRecordDAO();
@@ -176,10 +182,7 @@ public class Main {
         
         switch (choice) {
             case 1:
-                List<User> users = userDAO.getAllUsers();
-                for (User u : users) {
-                    System.out.println(u);
-                }
+                userDAO.streamAllUsers(System.out::println);
                 break;
             case 2:
                 System.out.print("Enter User ID: ");
@@ -195,13 +198,9 @@ public class Main {
     }
 
     private static void viewAllAppointments() {
-        List<Appointment> appointments = appointmentDAO.getAllAppointments();
-        if (appointments.isEmpty()) {
+        int count = appointmentDAO.streamAllAppointments(System.out::println);
+        if (count == 0) {
             System.out.println("No appointments found.");
-        } else {
-            for (Appointment a : appointments) {
-                System.out.println(a);
-            }
         }
     }
 
@@ -215,9 +214,18 @@ public class Main {
 
     private static void viewReports() {
         System.out.println("\n=== SYSTEM REPORTS ===");
-        System.out.println("Total Appointments: " + appointmentDAO.getAllAppointments().size());
-        System.out.println("Total Doctors: " + doctorDAO.getAllDoctors().size());
-        System.out.println("Total Patients: " + patientDAO.getAllPatients().size());
+        // Counted in the database rather than by loading every row
+        System.out.println("Total Appointments: " + formatCount(appointmentDAO.countAppointments()));
+        System.out.println("Total Doctors: " + formatCount(userDAO.countUsersByRole("doctor")));
+        System.out.println("Total Patients: " + formatCount(userDAO.countUsersByRole("patient")));
+        System.out.println("\n--- Doctors ---");
+        for (DoctorStatistics stats : DoctorStatisticsService.getInstance().getAllStatistics()) {
+            System.out.println(stats);
+        }
+    }
+
+    private static String formatCount(int count) {
+        return count < 0 ? "unavailable" : String.valueOf(count);
     }
 
     private static void viewDoctorAppointments() {
@@ -225,8 +233,15 @@ public class Main {
         if (appointments.isEmpty()) {
             System.out.println("No appointments.");
         } else {
+            // Resolve all patients in one lookup instead of one query per row
+            int[] patientIds = new int[appointments.size()];
+            for (int i = 0; i < patientIds.length; i++) {
+                patientIds[i] = appointments.get(i).getPatientId();
+            }
+            IntObjectMap<Patient> patients = patientDAO.getPatientsByIds(patientIds);
             for (Appointment a : appointments) {
-                System.out.println(a);
+                Patient patient = patients.get(a.getPatientId());
+                System.out.println(a + " | Patient: " + (patient != null ? patient.getUsername() : "#" + a.getPatientId()));
             }
         }
     }
@@ -234,10 +249,7 @@ public class Main {
     private static void viewMedicalRecords() {
         System.out.print("Enter Patient ID: ");
         int patientId = getIntInput();
-        List<MedicalRecord> records = medicalRecordDAO.getRecordsByPatient(patientId);
-        for (MedicalRecord r : records) {
-            System.out.println(r);
-        }
+        showMedicalRecords(medicalRecordDAO.getRecordsByPatient(patientId));
     }
 
     private static void manageSchedule() {
@@ -264,28 +276,70 @@ public class Main {
         apt.setAppointmentTime(java.time.LocalTime.parse(time));
         apt.setStatus("pending");
         
-        appointmentDAO.createAppointment(apt);
-        System.out.println("Appointment booked successfully!");
+        BookingResult result = appointmentService.bookAppointment(apt);
+        if (result == BookingResult.BOOKED) {
+            System.out.println("Appointment #" + apt.getId() + " booked successfully!");
+        } else if (result == BookingResult.SLOT_TAKEN) {
+            System.out.println("That slot has just been booked. Please choose another time.");
+        } else if (result == BookingResult.DAILY_LIMIT_REACHED) {
+            System.out.println("The doctor is fully booked on that date.");
+        } else if (result == BookingResult.SLOT_UNAVAILABLE) {
+            System.out.println("The doctor is not available at that time.");
+        } else {
+            System.out.println("Failed to book appointment.");
+        }
     }
 
     private static void viewPatientAppointments() {
-        List<Appointment> appointments = appointmentDAO.getAppointmentsByPatient(currentUser.getId());
-        if (appointments.isEmpty()) {
+        AppointmentViewFilter filter = new AppointmentViewFilter().setPatientId(currentUser.getId());
+        Page<AppointmentView> page = appointmentViewDAO.getAppointmentViews(filter, null, AppointmentDAO.MAX_PAGE_SIZE);
+        if (page.getItems().isEmpty()) {
             System.out.println("No appointments.");
-        } else {
-            for (Appointment a : appointments) {
+            return;
+        }
+        while (true) {
+            for (AppointmentView a : page.getItems()) {
                 System.out.println(a);
             }
+            if (!page.hasMore()) {
+                break;
+            }
+            page = appointmentViewDAO.getAppointmentViews(filter,
+                    AppointmentCursor.parse(page.getNextCursor()), AppointmentDAO.MAX_PAGE_SIZE);
         }
     }
 
     private static void viewPatientMedicalRecords() {
-        List<MedicalRecord> records = medicalRecordDAO.getRecordsByPatient(currentUser.getId());
+        showMedicalRecords(medicalRecordDAO.getRecordsByPatient(currentUser.getId()));
+    }
+
+    /**
+     * List record summaries, then load the full text of the records the user picks
+     */
+    private static void showMedicalRecords(List<MedicalRecord> records) {
         if (records.isEmpty()) {
             System.out.println("No medical records.");
-        } else {
+            return;
+        }
+        for (MedicalRecord r : records) {
+            System.out.println("#" + r.getId() + "  " + r.getRecordDate() + "  Doctor ID: " + r.getDoctorId());
+        }
+        while (true) {
+            System.out.print("Record ID to view (0 to go back): ");
+            int recordId = getIntInput();
+            if (recordId <= 0) {
+                return;
+            }
+            MedicalRecord selected = null;
             for (MedicalRecord r : records) {
-                System.out.println(r);
+                if (r.getId() == recordId) {
+                    selected = r;
+                }
+            }
+            if (selected == null || !medicalRecordDAO.loadDetails(selected)) {
+                System.out.println("Record not found.");
+            } else {
+                System.out.println(selected);
             }
         }
     }
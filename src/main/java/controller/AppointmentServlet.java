@@ -6,9 +6,18 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import database.AppointmentCursor;
 import database.AppointmentDAO;
+import database.AppointmentViewDAO;
+import database.AppointmentViewFilter;
+import database.Page;
 import models.Appointment;
+import models.AppointmentView;
+import services.AppointmentService;
+import services.BookingResult;
 
 /**
  * AppointmentServlet - Handles HTTP requests for appointment management
@@ -19,12 +28,17 @@ import models.Appointment;
 @WebServlet("/appointments")
 public class AppointmentServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_PAGE_SIZE = 50;
     private AppointmentDAO appointmentDAO;
+    private AppointmentViewDAO appointmentViewDAO;
+    private AppointmentService appointmentService;
 
     @Override
     public void init() throws ServletException {
         super.init();
         appointmentDAO = new AppointmentDAO();
+        appointmentViewDAO = new AppointmentViewDAO();
+        appointmentService = new AppointmentService();
         getServletContext().log("AppointmentServlet initialized");
     }
 
@@ -76,19 +90,34 @@ public class AppointmentServlet extends HttpServlet {
             Appointment appointment = new Appointment();
             appointment.setPatientId(patientId);
             appointment.setDoctorId(doctorId);
-            appointment.setAppointmentDate(appointmentDate);
-            appointment.setAppointmentTime(appointmentTime);
+            appointment.setAppointmentDate(LocalDate.parse(appointmentDate));
+            appointment.setAppointmentTime(LocalTime.parse(appointmentTime));
             appointment.setStatus("pending");
             appointment.setNotes(notes != null ? notes : "");
 
-            if (appointmentDAO.createAppointment(appointment)) {
-                request.getSession().setAttribute("message", "Appointment booked successfully!");
-                response.sendRedirect(request.getContextPath() + "/appointments");
-            } else {
-                request.getSession().setAttribute("error", "Failed to create appointment");
-                response.sendRedirect(request.getContextPath() + "/appointments?action=form");
+            BookingResult result = appointmentService.bookAppointment(appointment);
+            switch (result) {
+                case BOOKED:
+                    request.getSession().setAttribute("message", "Appointment booked successfully!");
+                    response.sendRedirect(request.getContextPath() + "/appointments?action=view&id=" + appointment.getId());
+                    break;
+                case SLOT_TAKEN:
+                    request.getSession().setAttribute("error", "This slot has just been booked by another patient. Please choose another time");
+                    response.sendRedirect(request.getContextPath() + "/appointments?action=form");
+                    break;
+                case DAILY_LIMIT_REACHED:
+                    request.getSession().setAttribute("error", "The doctor is fully booked on the selected date");
+                    response.sendRedirect(request.getContextPath() + "/appointments?action=form");
+                    break;
+                case SLOT_UNAVAILABLE:
+                    request.getSession().setAttribute("error", "The doctor is not available at the selected time");
+                    response.sendRedirect(request.getContextPath() + "/appointments?action=form");
+                    break;
+                default:
+                    request.getSession().setAttribute("error", "Failed to create appointment");
+                    response.sendRedirect(request.getContextPath() + "/appointments?action=form");
             }
-        } catch (NumberFormatException e) {
+        } catch (NumberFormatException | DateTimeParseException e) {
             request.getSession().setAttribute("error", "Invalid input format");
             response.sendRedirect(request.getContextPath() + "/appointments?action=form");
         } catch (Exception e) {
@@ -100,8 +129,43 @@ public class AppointmentServlet extends HttpServlet {
     private void listAppointments(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            List<Appointment> appointments = appointmentDAO.getAllAppointments();
-            request.setAttribute("appointments", appointments);
+            AppointmentCursor after = null;
+            int limit = DEFAULT_PAGE_SIZE;
+            AppointmentViewFilter filter = new AppointmentViewFilter();
+            try {
+                String afterParam = request.getParameter("after");
+                String limitParam = request.getParameter("limit");
+                if (afterParam != null && !afterParam.isEmpty()) {
+                    after = AppointmentCursor.parse(afterParam);
+                }
+                if (limitParam != null && !limitParam.isEmpty()) {
+                    limit = Integer.parseInt(limitParam);
+                }
+                String doctorParam = request.getParameter("doctor_id");
+                String patientParam = request.getParameter("patient_id");
+                String fromParam = request.getParameter("from");
+                String toParam = request.getParameter("to");
+                if (doctorParam != null && !doctorParam.isEmpty()) {
+                    filter.setDoctorId(Integer.parseInt(doctorParam));
+                }
+                if (patientParam != null && !patientParam.isEmpty()) {
+                    filter.setPatientId(Integer.parseInt(patientParam));
+                }
+                if (fromParam != null && !fromParam.isEmpty()) {
+                    filter.setFromDate(LocalDate.parse(fromParam));
+                }
+                if (toParam != null && !toParam.isEmpty()) {
+                    filter.setToDate(LocalDate.parse(toParam));
+                }
+                filter.setStatus(request.getParameter("status"));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+
+            Page<AppointmentView> page = appointmentViewDAO.getAppointmentViews(filter, after, limit);
+            request.setAttribute("appointments", page.getItems());
+            request.setAttribute("nextCursor", page.getNextCursor());
             request.getRequestDispatcher("/WEB-INF/views/appointments/list.jsp").forward(request, response);
         } catch (Exception e) {
             throw new ServletException("Unable to list appointments", e);
@@ -134,7 +198,7 @@ public class AppointmentServlet extends HttpServlet {
             throws ServletException, IOException {
         try {
             int appointmentId = Integer.parseInt(request.getParameter("id"));
-            if (appointmentDAO.updateAppointmentStatus(appointmentId, "cancelled")) {
+            if (appointmentService.cancelAppointment(appointmentId)) {
                 request.getSession().setAttribute("message", "Appointment cancelled successfully");
             } else {
                 request.getSession().setAttribute("error", "Failed to cancel appointment");
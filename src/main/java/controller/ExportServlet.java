@@ -0,0 +1,288 @@
+package controller;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+import database.BillingExportDAO;
+import database.DatabaseConnection;
+import models.BillingExportRow;
+
+/**
+ * ExportServlet - Streams bills joined with their appointments as CSV or NDJSON for finance.
+ * GET /exports/billing?from=YYYY-MM-DD&to=YYYY-MM-DD[&format=csv|ndjson]
+ * Only logged-in admins may export; other requests get 401 without a login and 403 otherwise.
+ * Rows go from a database cursor straight to the response, which is gzip-compressed when the
+ * client accepts it and flushed every export.flushRows rows. A slow client blocks the writes and
+ * so the cursor, keeping memory constant. At most export.maxConcurrent exports run at once,
+ * since each holds a pooled connection until it finishes.
+ * A failure after the first bytes were sent aborts the response instead of ending it cleanly,
+ * so a partial export cannot be mistaken for a complete one.
+ */
+@WebServlet("/exports/billing")
+public class ExportServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final String CSV_HEADER = "bill_id,bill_date,amount,payment_status,payment_date,service_description,"
+            + "appointment_id,appointment_date,appointment_time,appointment_status,"
+            + "patient_id,patient_username,doctor_id,doctor_username\n";
+    private BillingExportDAO exportDAO;
+    private Semaphore exportSlots;
+    private int maxDays;
+    private int flushRows;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        exportDAO = new BillingExportDAO();
+        int maxConcurrent = 2;
+        maxDays = 366;
+        flushRows = 1000;
+        try {
+            DatabaseConnection db = DatabaseConnection.getInstance();
+            maxConcurrent = Integer.parseInt(db.getProperty("export.maxConcurrent", String.valueOf(maxConcurrent)));
+            maxDays = Integer.parseInt(db.getProperty("export.maxDays", String.valueOf(maxDays)));
+            flushRows = Integer.parseInt(db.getProperty("export.flushRows", String.valueOf(flushRows)));
+        } catch (SQLException | NumberFormatException e) {
+            getServletContext().log("Using default export settings", e);
+        }
+        exportSlots = new Semaphore(Math.max(1, maxConcurrent));
+        flushRows = Math.max(1, flushRows);
+        getServletContext().log("ExportServlet initialized");
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        Object role = session != null ? session.getAttribute("userRole") : null;
+        if (role == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (!"admin".equals(role)) {
+            getServletContext().log("Refused billing export to " + session.getAttribute("username"));
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(request.getParameter("from"));
+            to = LocalDate.parse(request.getParameter("to"));
+        } catch (DateTimeParseException | NullPointerException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "from and to must be dates (YYYY-MM-DD)");
+            return;
+        }
+        String format = request.getParameter("format") != null ? request.getParameter("format") : "csv";
+        boolean csv = "csv".equals(format);
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxDays || !(csv || "ndjson".equals(format))) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (!exportSlots.tryAcquire()) {
+            response.setHeader("Retry-After", "30");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        try {
+            export(request, response, from, to, csv);
+        } finally {
+            exportSlots.release();
+        }
+    }
+
+    private void export(HttpServletRequest request, HttpServletResponse response, LocalDate from, LocalDate to,
+                        boolean csv) throws IOException {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"billing-" + from + "-to-" + to + (csv ? ".csv" : ".ndjson") + "\"");
+        response.setHeader("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        OutputStream out = response.getOutputStream();
+        ReleasableGZIPOutputStream gzipOut = null;
+        if (gzip) {
+            // syncFlush so every periodic flush reaches the client
+            gzipOut = new ReleasableGZIPOutputStream(out, BUFFER_SIZE);
+            out = gzipOut;
+        }
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            long[] written = {0};
+            long rows;
+            try {
+                rows = exportDAO.streamBills(from, to, row -> {
+                    try {
+                        if (csv) {
+                            writeCsv(writer, row);
+                        } else {
+                            writeJson(writer, row);
+                        }
+                        if (++written[0] % flushRows == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                getServletContext().log("Billing export " + from + ".." + to + " aborted by the client after "
+                        + written[0] + " rows");
+                return;
+            }
+            if (rows < 0) {
+                if (!response.isCommitted()) {
+                    response.reset();
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    return;
+                }
+                // Leave the gzip and chunked streams unterminated so the client sees a broken transfer
+                throw new IOException("Billing export " + from + ".." + to + " failed after " + written[0] + " rows");
+            }
+            writer.close();
+        } finally {
+            // The aborted and failed paths never close the stream, which would free the native zlib memory
+            if (gzipOut != null) {
+                gzipOut.release();
+            }
+        }
+    }
+
+    private static void writeCsv(Writer writer, BillingExportRow row) throws IOException {
+        writer.write(String.valueOf(row.getBillId()));
+        writer.write(',');
+        writer.write(format(row.getBillDate()));
+        writer.write(',');
+        writer.write(row.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(row.getPaymentStatus());
+        writer.write(',');
+        writer.write(format(row.getPaymentDate()));
+        writer.write(',');
+        writer.write(csvField(row.getServiceDescription()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getAppointmentId()));
+        writer.write(',');
+        writer.write(row.getAppointmentDate().toString());
+        writer.write(',');
+        writer.write(row.getAppointmentTime().format(TIME));
+        writer.write(',');
+        writer.write(row.getAppointmentStatus());
+        writer.write(',');
+        writer.write(String.valueOf(row.getPatientId()));
+        writer.write(',');
+        writer.write(csvField(row.getPatientUsername()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getDoctorId()));
+        writer.write(',');
+        writer.write(csvField(row.getDoctorUsername()));
+        writer.write('\n');
+    }
+
+    private static void writeJson(Writer writer, BillingExportRow row) throws IOException {
+        writer.write("{\"bill_id\":" + row.getBillId());
+        writer.write(",\"bill_date\":" + jsonString(format(row.getBillDate())));
+        writer.write(",\"amount\":" + row.getAmount().toPlainString());
+        writer.write(",\"payment_status\":" + jsonString(row.getPaymentStatus()));
+        writer.write(",\"payment_date\":" + (row.getPaymentDate() != null ? jsonString(format(row.getPaymentDate())) : "null"));
+        writer.write(",\"service_description\":" + jsonString(row.getServiceDescription()));
+        writer.write(",\"appointment_id\":" + row.getAppointmentId());
+        writer.write(",\"appointment_date\":" + jsonString(row.getAppointmentDate().toString()));
+        writer.write(",\"appointment_time\":" + jsonString(row.getAppointmentTime().format(TIME)));
+        writer.write(",\"appointment_status\":" + jsonString(row.getAppointmentStatus()));
+        writer.write(",\"patient_id\":" + row.getPatientId());
+        writer.write(",\"patient_username\":" + jsonString(row.getPatientUsername()));
+        writer.write(",\"doctor_id\":" + row.getDoctorId());
+        writer.write(",\"doctor_username\":" + jsonString(row.getDoctorUsername()));
+        writer.write("}\n");
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.format(TIMESTAMP) : "";
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling inner quotes
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * GZIPOutputStream whose Deflater can be ended without closing, and so without terminating, the stream
+     */
+    private static final class ReleasableGZIPOutputStream extends GZIPOutputStream {
+        ReleasableGZIPOutputStream(OutputStream out, int size) throws IOException {
+            super(out, size, true);
+        }
+
+        void release() {
+            def.end();
+        }
+    }
+}
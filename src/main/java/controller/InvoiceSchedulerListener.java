@@ -0,0 +1,29 @@
+package controller;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import services.InvoiceService;
+
+/**
+ * InvoiceSchedulerListener - Runs the scheduled invoicing of completed appointments
+ * for as long as the web application is deployed
+ */
+@WebListener
+public class InvoiceSchedulerListener implements ServletContextListener {
+    private InvoiceService invoiceService;
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        invoiceService = InvoiceService.getInstance();
+        event.getServletContext().log("Invoice scheduler started");
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (invoiceService != null) {
+            invoiceService.shutdown();
+        }
+        event.getServletContext().log("Invoice scheduler stopped");
+    }
+}
@@ -0,0 +1,164 @@
+package controller;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import database.DatabaseConnection;
+import services.BillingService;
+import services.PaymentResult;
+
+/**
+ * PaymentServlet - Payment gateway callbacks that set a bill's payment status.
+ * POST /payments with a form body of bill_id and optional status (default completed) and an Idempotency-Key header.
+ * The X-Signature header must carry the hex HMAC-SHA256 of the raw body under payment.gateway.secret;
+ * unsigned or badly signed callbacks get 401, and all callbacks are refused while no secret is configured.
+ * Gateways retry callbacks, so a repeated key gets the first outcome without touching the bill.
+ * Answers 200 with APPLIED or ALREADY_APPLIED, 404 for an unknown bill, 409 if the bill changed
+ * to another status meanwhile, 422 if the key was used for a different payment, and 503 on
+ * failure, which the gateway may retry with the same key.
+ */
+@WebServlet("/payments")
+public class PaymentServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final int SC_UNPROCESSABLE_ENTITY = 422;
+    // Printable ASCII, matching the ascii idempotency_key column
+    private static final Pattern IDEMPOTENCY_KEY = Pattern.compile("[\\x21-\\x7E]{1,64}");
+    private static final Pattern PAYMENT_STATUS = Pattern.compile("pending|completed|cancelled");
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAX_BODY_BYTES = 4096;
+    private BillingService billingService;
+    private SecretKeySpec gatewayKey;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        billingService = new BillingService();
+        try {
+            String secret = DatabaseConnection.getInstance().getProperty("payment.gateway.secret", "");
+            if (!secret.isEmpty()) {
+                gatewayKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+            }
+        } catch (SQLException e) {
+            getServletContext().log("Unable to read the payment gateway secret", e);
+        }
+        if (gatewayKey == null) {
+            getServletContext().log("payment.gateway.secret is not set; payment callbacks will be refused");
+        }
+        getServletContext().log("PaymentServlet initialized");
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        if (!isSigned(body, request.getHeader("X-Signature"))) {
+            getServletContext().log("Rejected unsigned payment callback from " + request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        // Parameters come from the verified body, never from the unsigned query string
+        Map<String, String> params;
+        try {
+            params = parseForm(new String(body, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        String key = request.getHeader("Idempotency-Key");
+        String status = params.getOrDefault("status", "completed");
+        if (key == null || !IDEMPOTENCY_KEY.matcher(key).matches() || !PAYMENT_STATUS.matcher(status).matches()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        int billId;
+        try {
+            billId = Integer.parseInt(params.get("bill_id"));
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        try {
+            PaymentResult result = billingService.postPayment(key, billId, status);
+            switch (result) {
+                case APPLIED:
+                case ALREADY_APPLIED:
+                    response.setContentType("text/plain");
+                    response.getWriter().write(result.name());
+                    break;
+                case BILL_NOT_FOUND:
+                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    break;
+                case CONFLICT:
+                    response.sendError(HttpServletResponse.SC_CONFLICT);
+                    break;
+                case KEY_REUSED:
+                    response.sendError(SC_UNPROCESSABLE_ENTITY);
+                    break;
+                default:
+                    response.setHeader("Retry-After", "1");
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
+        } catch (Exception e) {
+            getServletContext().log("Error in doPost: ", e);
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private boolean isSigned(byte[] body, String signature) {
+        if (gatewayKey == null || signature == null) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(gatewayKey);
+            byte[] expected = toHex(mac.doFinal(body)).getBytes(StandardCharsets.US_ASCII);
+            // Constant time, so the signature cannot be guessed byte by byte
+            return MessageDigest.isEqual(expected, signature.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            getServletContext().log("Unable to verify payment callback signature", e);
+            return false;
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    // application/x-www-form-urlencoded; the first value of a repeated name wins, like getParameter
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+}
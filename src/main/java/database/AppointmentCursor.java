@@ -0,0 +1,58 @@
+package database;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import models.Appointment;
+import models.AppointmentView;
+
+/**
+ * AppointmentCursor - Keyset position in the (appointment_date, appointment_time, id) ordering.
+ * Serialized as "yyyy-MM-dd_HH:mm:ss_id" for use in the ?after= query parameter.
+ */
+public final class AppointmentCursor {
+    private final LocalDate date;
+    private final LocalTime time;
+    private final int id;
+
+    public AppointmentCursor(LocalDate date, LocalTime time, int id) {
+        this.date = date;
+        this.time = time;
+        this.id = id;
+    }
+
+    public static AppointmentCursor of(Appointment appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDate(), appointment.getAppointmentTime(), appointment.getId());
+    }
+
+    public static AppointmentCursor of(AppointmentView view) {
+        return new AppointmentCursor(view.getAppointmentDate(), view.getAppointmentTime(), view.getId());
+    }
+
+    /**
+     * Parse a cursor token produced by toString()
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static AppointmentCursor parse(String token) {
+        String[] parts = token == null ? new String[0] : token.split("_");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid appointment cursor: " + token);
+        }
+        try {
+            return new AppointmentCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Integer.parseInt(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid appointment cursor: " + token, e);
+        }
+    }
+
+    public LocalDate getDate() { return date; }
+
+    public LocalTime getTime() { return time; }
+
+    public int getId() { return id; }
+
+    @Override
+    public String toString() {
+        return date + "_" + time + "_" + id;
+    }
+}
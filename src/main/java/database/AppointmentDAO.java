@@ -1,20 +1,49 @@
 package database;
 
 import models.Appointment;
+import models.Billing;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * AppointmentDAO - Data Access Object for Appointments.
  * Handles all database operations for appointments using Singleton pattern and best practices.
+ * Listing methods return appointments without notes; use getAppointmentById or loadNotes for them.
  */
 public class AppointmentDAO {
     private static final Logger LOGGER = Logger.getLogger(AppointmentDAO.class.getName());
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final String INSERT_APPOINTMENT = "INSERT INTO appointments "
+            + "(patient_id, doctor_id, appointment_date, appointment_time, status, notes) VALUES (?, ?, ?, ?, ?, ?)";
+    // Listings leave out the notes TEXT column; getAppointmentById and loadNotes read it.
+    // mapAppointment reads columns by position, so keep it in step with this order.
+    private static final String SUMMARY_COLUMNS = "id, patient_id, doctor_id, appointment_date, appointment_time, status";
+    private static final int NOTES_COLUMN = 7;
+    private static final int ER_DUP_ENTRY = 1062;
+    private static final String ACTIVE_SLOT_KEY = "uk_appointments_active_slot";
+    public static final String SELECT_BY_PATIENT = "SELECT " + SUMMARY_COLUMNS + " FROM appointments WHERE patient_id = ?";
+    public static final String SELECT_BY_DOCTOR = "SELECT " + SUMMARY_COLUMNS + " FROM appointments WHERE doctor_id = ?";
+    public static final String SELECT_UPCOMING_BY_DOCTOR = "SELECT " + SUMMARY_COLUMNS + " FROM appointments "
+            + "WHERE doctor_id = ? AND appointment_date >= ? AND status <> 'cancelled'";
+    public static final String SELECT_UNINVOICED_COMPLETED = "SELECT " + SUMMARY_COLUMNS + " FROM appointments a "
+            + "WHERE doctor_id = ? AND status = 'completed' AND id > ? "
+            + "AND NOT EXISTS (SELECT 1 FROM billing b WHERE b.appointment_id = a.id) ORDER BY id LIMIT ?";
+    public static final String COUNT_ACTIVE = "SELECT COUNT(*) FROM appointments "
+            + "WHERE doctor_id = ? AND appointment_date = ? AND status <> 'cancelled'";
+    public static final String SELECT_FIRST_PAGE = "SELECT " + SUMMARY_COLUMNS + " FROM appointments "
+            + "ORDER BY appointment_date, appointment_time, id LIMIT ?";
+    // Expanded form of (appointment_date, appointment_time, id) > (?, ?, ?), which MySQL cannot use
+    // as a range on idx_appointments_date_time; the leading appointment_date >= ? bounds the range scan
+    public static final String SELECT_PAGE_AFTER = "SELECT " + SUMMARY_COLUMNS + " FROM appointments "
+            + "WHERE appointment_date >= ? AND (appointment_date > ? OR (appointment_date = ? "
+            + "AND (appointment_time > ? OR (appointment_time = ? AND id > ?)))) "
+            + "ORDER BY appointment_date, appointment_time, id LIMIT ?";
     private DatabaseConnection dbConnection;
 
     public AppointmentDAO() {
@@ -26,36 +55,66 @@ public class AppointmentDAO {
     }
 
     /**
-     * Create a new appointment
+     * Create a new appointment and set its generated id
+     * @throws SlotConflictException if the doctor already has an active appointment in that slot
      */
     public boolean createAppointment(Appointment appointment) {
-        String query = "INSERT INTO appointments (patient_id, doctor_id, appointment_date, appointment_time, status, notes) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, appointment.getPatientId());
-            stmt.setInt(2, appointment.getDoctorId());
-            stmt.setDate(3, Date.valueOf(appointment.getAppointmentDate()));
-            stmt.setTime(4, Time.valueOf(appointment.getAppointmentTime()));
-            stmt.setString(5, appointment.getStatus());
-            stmt.setString(6, appointment.getNotes());
-            return stmt.executeUpdate() > 0;
+             PreparedStatement stmt = conn.prepareStatement(INSERT_APPOINTMENT, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(stmt, appointment);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    appointment.setId(keys.getInt(1));
+                }
+            }
+            return true;
         } catch (SQLException e) {
+            // uk_appointments_active_slot rejects a second active booking for the same slot;
+            // other integrity errors (an unknown patient or doctor, a missing value) are plain failures
+            if (isSlotConflict(e)) {
+                throw new SlotConflictException("Slot already booked for doctor " + appointment.getDoctorId()
+                        + " at " + appointment.getAppointmentDate() + " " + appointment.getAppointmentTime(), e);
+            }
             LOGGER.log(Level.SEVERE, "Error creating appointment", e);
             return false;
         }
     }
 
+    private static boolean isSlotConflict(SQLException e) {
+        return e.getErrorCode() == ER_DUP_ENTRY && e.getMessage() != null
+                && e.getMessage().contains(ACTIVE_SLOT_KEY);
+    }
+
+    /**
+     * Create many appointments in one transaction using JDBC batching, in chunks of db.batch.chunkSize.
+     * Rows that fail (e.g. a slot conflict) are reported in the result without aborting the others.
+     * Generated ids are set on the inserted appointments.
+     */
+    public BatchResult createAppointments(List<Appointment> appointments) {
+        return createAppointments(appointments, BatchInsert.configuredChunkSize(dbConnection));
+    }
+
+    public BatchResult createAppointments(List<Appointment> appointments, int chunkSize) {
+        return BatchInsert.execute(dbConnection, INSERT_APPOINTMENT, appointments, chunkSize,
+                AppointmentDAO::bindInsert, Appointment::setId);
+    }
+
     /**
      * Get appointment by ID
      */
     public Appointment getAppointmentById(int id) {
-        String query = "SELECT * FROM appointments WHERE id = ?";
+        String query = "SELECT " + SUMMARY_COLUMNS + ", notes FROM appointments WHERE id = ?";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapAppointment(rs);
+                    Appointment appointment = mapAppointment(rs);
+                    appointment.setNotes(rs.getString(NOTES_COLUMN));
+                    return appointment;
                 }
             }
         } catch (SQLException e) {
@@ -64,12 +123,33 @@ public class AppointmentDAO {
         return null;
     }
 
+    /**
+     * Load the notes of an appointment returned by a listing method, which leaves them out
+     * @return false if the appointment no longer exists or the query failed
+     */
+    public boolean loadNotes(Appointment appointment) {
+        String query = "SELECT notes FROM appointments WHERE id = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, appointment.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    appointment.setNotes(rs.getString(1));
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading notes for appointment: " + appointment.getId(), e);
+        }
+        return false;
+    }
+
     /**
      * Get all appointments for a patient
      */
     public List<Appointment> getAppointmentsByPatient(int patientId) {
         List<Appointment> appointments = new ArrayList<>();
-        String query = "SELECT * FROM appointments WHERE patient_id = ?";
+        String query = SELECT_BY_PATIENT;
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, patientId);
@@ -89,7 +169,7 @@ public class AppointmentDAO {
      */
     public List<Appointment> getAppointmentsByDoctor(int doctorId) {
         List<Appointment> appointments = new ArrayList<>();
-        String query = "SELECT * FROM appointments WHERE doctor_id = ?";
+        String query = SELECT_BY_DOCTOR;
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, doctorId);
@@ -104,6 +184,89 @@ public class AppointmentDAO {
         return appointments;
     }
 
+    /**
+     * Get a doctor's active (not cancelled) appointments on or after the given date
+     */
+    public List<Appointment> getUpcomingAppointmentsByDoctor(int doctorId, LocalDate fromDate) {
+        List<Appointment> appointments = new ArrayList<>();
+        String query = SELECT_UPCOMING_BY_DOCTOR;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, doctorId);
+            stmt.setDate(2, Date.valueOf(fromDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapAppointment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving upcoming doctor appointments: " + doctorId, e);
+        }
+        return appointments;
+    }
+
+    /**
+     * Get a doctor's completed appointments that have no bill yet, in id order after afterId.
+     * Served by idx_appointments_doctor_status and uk_billing_appointment.
+     */
+    public List<Appointment> getUninvoicedCompletedAppointments(int doctorId, int afterId, int limit) {
+        List<Appointment> appointments = new ArrayList<>();
+        String query = SELECT_UNINVOICED_COMPLETED;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, doctorId);
+            stmt.setInt(2, afterId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapAppointment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving uninvoiced appointments of doctor: " + doctorId, e);
+        }
+        return appointments;
+    }
+
+    /**
+     * Count a doctor's active (not cancelled) appointments on a given date
+     * @return the count, or -1 if the query failed
+     */
+    public int countActiveAppointments(int doctorId, LocalDate date) {
+        String query = COUNT_ACTIVE;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, doctorId);
+            stmt.setDate(2, Date.valueOf(date));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting appointments for doctor: " + doctorId, e);
+        }
+        return -1;
+    }
+
+    /**
+     * Count all appointments
+     * @return the count, or -1 if the query failed
+     */
+    public int countAppointments() {
+        String query = "SELECT COUNT(*) FROM appointments";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting appointments", e);
+        }
+        return -1;
+    }
+
     /**
      * Update appointment status
      */
@@ -121,33 +284,90 @@ public class AppointmentDAO {
     }
 
     /**
-     * Cancel appointment
+     * Cancel an appointment that is not cancelled yet
+     * @return false if it was already cancelled, so only one of concurrent cancels succeeds
      */
     public boolean cancelAppointment(int appointmentId) {
-        return updateAppointmentStatus(appointmentId, "cancelled");
-    }
-
-    /**
-     * Delete appointment
-     */
-    public boolean deleteAppointment(int appointmentId) {
-        String query = "DELETE FROM appointments WHERE id = ?";
+        String query = "UPDATE appointments SET status = 'cancelled' WHERE id = ? AND status <> 'cancelled'";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, appointmentId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error deleting appointment: " + appointmentId, e);
+            LOGGER.log(Level.SEVERE, "Error cancelling appointment: " + appointmentId, e);
             return false;
         }
     }
 
+    /**
+     * Delete an appointment. Its bills go with it (ON DELETE CASCADE), so they are taken out of
+     * the patient's billing ledger in the same transaction.
+     * @return the appointment as read under the row lock, with its deleted bills,
+     *         or null if the appointment does not exist or the delete failed
+     */
+    public DeletedAppointment deleteAppointment(int appointmentId) {
+        String lockQuery = "SELECT " + SUMMARY_COLUMNS + " FROM appointments WHERE id = ? FOR UPDATE";
+        String billsQuery = "SELECT id, patient_id, doctor_id, amount, payment_status FROM billing "
+                + "WHERE appointment_id = ? FOR UPDATE";
+        String deleteQuery = "DELETE FROM appointments WHERE id = ?";
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Lock the appointment first, as invoicing does through the billing foreign key,
+                // so no bill can be added, and no cancel can commit, between these reads and the delete
+                Appointment appointment;
+                try (PreparedStatement stmt = conn.prepareStatement(lockQuery)) {
+                    stmt.setInt(1, appointmentId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return null;
+                        }
+                        appointment = mapAppointment(rs);
+                    }
+                }
+                List<Billing> bills = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(billsQuery)) {
+                    stmt.setInt(1, appointmentId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Billing bill = new Billing();
+                            bill.setId(rs.getInt(1));
+                            bill.setAppointmentId(appointmentId);
+                            bill.setPatientId(rs.getInt(2));
+                            bill.setDoctorId(rs.getInt(3));
+                            bill.setAmount(rs.getBigDecimal(4));
+                            bill.setPaymentStatus(rs.getString(5));
+                            bills.add(bill);
+                        }
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(deleteQuery)) {
+                    stmt.setInt(1, appointmentId);
+                    stmt.executeUpdate();
+                }
+                for (Billing bill : bills) {
+                    PatientBillingLedgerDAO.addDelta(conn, bill.getPatientId(), -1, bill.getPaymentStatus(),
+                            bill.getAmount().negate());
+                }
+                conn.commit();
+                return new DeletedAppointment(appointment, bills);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error deleting appointment: " + appointmentId, e);
+            return null;
+        }
+    }
+
     /**
      * Get all appointments
      */
     public List<Appointment> getAllAppointments() {
         List<Appointment> appointments = new ArrayList<>();
-        String query = "SELECT * FROM appointments";
+        String query = "SELECT " + SUMMARY_COLUMNS + " FROM appointments";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
@@ -161,17 +381,93 @@ public class AppointmentDAO {
     }
 
     /**
-     * Map ResultSet to Appointment object
+     * Stream all appointments to the given action without buffering them in memory.
+     * Rows are read from a forward-only cursor using the configured fetch size.
+     * @return number of rows delivered, or -1 if the query failed
+     */
+    public int streamAllAppointments(Consumer<Appointment> action) {
+        return streamAllAppointments(dbConnection.getStreamFetchSize(), action);
+    }
+
+    /**
+     * Stream all appointments using an explicit fetch size
+     */
+    public int streamAllAppointments(int fetchSize, Consumer<Appointment> action) {
+        String query = "SELECT " + SUMMARY_COLUMNS + " FROM appointments";
+        int count = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = dbConnection.prepareStreaming(conn, query, fetchSize);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(mapAppointment(rs));
+                count++;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming appointments after " + count + " rows", e);
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Get one page of appointments ordered by (appointment_date, appointment_time, id).
+     * Uses keyset pagination so the cost of a page does not depend on how deep it is.
+     * @param after cursor of the last row of the previous page, or null for the first page
+     * @param limit page size, clamped to 1..MAX_PAGE_SIZE
+     */
+    public Page<Appointment> getAppointmentsPage(AppointmentCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Appointment> appointments = new ArrayList<>(pageSize + 1);
+        String query = after == null ? SELECT_FIRST_PAGE : SELECT_PAGE_AFTER;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            if (after != null) {
+                stmt.setDate(index++, Date.valueOf(after.getDate()));
+                stmt.setDate(index++, Date.valueOf(after.getDate()));
+                stmt.setDate(index++, Date.valueOf(after.getDate()));
+                stmt.setTime(index++, Time.valueOf(after.getTime()));
+                stmt.setTime(index++, Time.valueOf(after.getTime()));
+                stmt.setInt(index++, after.getId());
+            }
+            // Fetch one extra row to know whether another page follows
+            stmt.setInt(index, pageSize + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapAppointment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving appointment page after: " + after, e);
+        }
+        String nextCursor = null;
+        if (appointments.size() > pageSize) {
+            appointments.remove(pageSize);
+            nextCursor = AppointmentCursor.of(appointments.get(pageSize - 1)).toString();
+        }
+        return new Page<>(appointments, nextCursor);
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Appointment appointment) throws SQLException {
+        stmt.setInt(1, appointment.getPatientId());
+        stmt.setInt(2, appointment.getDoctorId());
+        stmt.setDate(3, Date.valueOf(appointment.getAppointmentDate()));
+        stmt.setTime(4, Time.valueOf(appointment.getAppointmentTime()));
+        stmt.setString(5, appointment.getStatus());
+        stmt.setString(6, appointment.getNotes());
+    }
+
+    /**
+     * Map a SUMMARY_COLUMNS row to an Appointment object, leaving notes unset
      */
     private Appointment mapAppointment(ResultSet rs) throws SQLException {
         Appointment appointment = new Appointment();
-        appointment.setId(rs.getInt("id"));
-        appointment.setPatientId(rs.getInt("patient_id"));
-        appointment.setDoctorId(rs.getInt("doctor_id"));
-        appointment.setAppointmentDate(rs.getDate("appointment_date").toLocalDate());
-        appointment.setAppointmentTime(rs.getTime("appointment_time").toLocalTime());
-        appointment.setStatus(rs.getString("status"));
-        appointment.setNotes(rs.getString("notes"));
+        appointment.setId(rs.getInt(1));
+        appointment.setPatientId(rs.getInt(2));
+        appointment.setDoctorId(rs.getInt(3));
+        appointment.setAppointmentDate(rs.getDate(4).toLocalDate());
+        appointment.setAppointmentTime(rs.getTime(5).toLocalTime());
+        appointment.setStatus(rs.getString(6));
         return appointment;
     }
 }
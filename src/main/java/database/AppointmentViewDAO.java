@@ -0,0 +1,146 @@
+package database;
+
+import models.AppointmentView;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AppointmentViewDAO - Read model for appointment listings.
+ * Returns appointments together with doctor and patient usernames and billing status
+ * from a single join, filtered and keyset-paginated like AppointmentDAO.getAppointmentsPage.
+ * Requires the billing table from schema_extended.sql.
+ */
+public class AppointmentViewDAO {
+    private static final Logger LOGGER = Logger.getLogger(AppointmentViewDAO.class.getName());
+    // uk_billing_appointment (V6) allows at most one bill per appointment, so each appointment yields exactly one row.
+    // mapView reads columns by position in this order.
+    private static final String SELECT_VIEW = "SELECT a.id, a.patient_id, a.doctor_id, a.appointment_date, "
+            + "a.appointment_time, a.status, p.username AS patient_username, d.username AS doctor_username, "
+            + "b.payment_status AS billing_status "
+            + "FROM appointments a "
+            + "JOIN users d ON d.id = a.doctor_id "
+            + "JOIN users p ON p.id = a.patient_id "
+            + "LEFT JOIN billing b ON b.appointment_id = a.id";
+    private static final String ORDER_BY = " ORDER BY a.appointment_date, a.appointment_time, a.id LIMIT ?";
+    private DatabaseConnection dbConnection;
+
+    public AppointmentViewDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in AppointmentViewDAO", e);
+        }
+    }
+
+    /**
+     * Get one page of appointment rows matching the filter, ordered by (appointment_date, appointment_time, id).
+     * @param filter criteria to apply, or null for all appointments
+     * @param after cursor of the last row of the previous page, or null for the first page
+     * @param limit page size, clamped to 1..AppointmentDAO.MAX_PAGE_SIZE
+     */
+    public Page<AppointmentView> getAppointmentViews(AppointmentViewFilter filter, AppointmentCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, AppointmentDAO.MAX_PAGE_SIZE));
+        List<AppointmentView> views = new ArrayList<>(pageSize + 1);
+        List<Object> params = new ArrayList<>();
+        String query = selectQuery(filter, after, params);
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            for (Object param : params) {
+                stmt.setObject(index++, param);
+            }
+            // Fetch one extra row to know whether another page follows
+            stmt.setInt(index, pageSize + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    views.add(mapView(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving appointment views for " + filter + " after: " + after, e);
+        }
+        String nextCursor = null;
+        if (views.size() > pageSize) {
+            views.remove(pageSize);
+            nextCursor = AppointmentCursor.of(views.get(pageSize - 1)).toString();
+        }
+        return new Page<>(views, nextCursor);
+    }
+
+    /**
+     * Build the page query for the filter and cursor, adding their parameters to params;
+     * the page size is bound last
+     */
+    public static String selectQuery(AppointmentViewFilter filter, AppointmentCursor after, List<Object> params) {
+        StringBuilder query = new StringBuilder(SELECT_VIEW);
+        appendCriteria(query, params, filter, after);
+        return query.append(ORDER_BY).toString();
+    }
+
+    /**
+     * Append a WHERE clause for the set criteria. Doctor and patient filters lead so the
+     * (doctor_id, appointment_date, ...) and (patient_id, appointment_date, ...) indexes serve both
+     * the filter and the ordering.
+     */
+    private static void appendCriteria(StringBuilder query, List<Object> params,
+                                       AppointmentViewFilter filter, AppointmentCursor after) {
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getDoctorId() != null) {
+                conditions.add("a.doctor_id = ?");
+                params.add(filter.getDoctorId());
+            }
+            if (filter.getPatientId() != null) {
+                conditions.add("a.patient_id = ?");
+                params.add(filter.getPatientId());
+            }
+            if (filter.getFromDate() != null) {
+                conditions.add("a.appointment_date >= ?");
+                params.add(Date.valueOf(filter.getFromDate()));
+            }
+            if (filter.getToDate() != null) {
+                conditions.add("a.appointment_date <= ?");
+                params.add(Date.valueOf(filter.getToDate()));
+            }
+            if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+                conditions.add("a.status = ?");
+                params.add(filter.getStatus());
+            }
+        }
+        if (after != null) {
+            // Expanded rather than a row comparison, which MySQL cannot use as an index range
+            conditions.add("a.appointment_date >= ?");
+            conditions.add("(a.appointment_date > ? OR (a.appointment_date = ? "
+                    + "AND (a.appointment_time > ? OR (a.appointment_time = ? AND a.id > ?))))");
+            params.add(Date.valueOf(after.getDate()));
+            params.add(Date.valueOf(after.getDate()));
+            params.add(Date.valueOf(after.getDate()));
+            params.add(Time.valueOf(after.getTime()));
+            params.add(Time.valueOf(after.getTime()));
+            params.add(after.getId());
+        }
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    /**
+     * Map a SELECT_VIEW row to an AppointmentView object
+     */
+    private AppointmentView mapView(ResultSet rs) throws SQLException {
+        AppointmentView view = new AppointmentView();
+        view.setId(rs.getInt(1));
+        view.setPatientId(rs.getInt(2));
+        view.setDoctorId(rs.getInt(3));
+        view.setAppointmentDate(rs.getDate(4).toLocalDate());
+        view.setAppointmentTime(rs.getTime(5).toLocalTime());
+        view.setStatus(rs.getString(6));
+        view.setPatientUsername(rs.getString(7));
+        view.setDoctorUsername(rs.getString(8));
+        view.setBillingStatus(rs.getString(9));
+        return view;
+    }
+}
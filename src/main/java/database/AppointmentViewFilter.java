@@ -0,0 +1,36 @@
+package database;
+
+import java.time.LocalDate;
+
+/**
+ * AppointmentViewFilter - Optional criteria for AppointmentViewDAO listings.
+ * Unset (null) criteria are ignored; date bounds are inclusive.
+ */
+public class AppointmentViewFilter {
+    private Integer doctorId;
+    private Integer patientId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private String status;
+
+    public Integer getDoctorId() { return doctorId; }
+    public AppointmentViewFilter setDoctorId(Integer doctorId) { this.doctorId = doctorId; return this; }
+
+    public Integer getPatientId() { return patientId; }
+    public AppointmentViewFilter setPatientId(Integer patientId) { this.patientId = patientId; return this; }
+
+    public LocalDate getFromDate() { return fromDate; }
+    public AppointmentViewFilter setFromDate(LocalDate fromDate) { this.fromDate = fromDate; return this; }
+
+    public LocalDate getToDate() { return toDate; }
+    public AppointmentViewFilter setToDate(LocalDate toDate) { this.toDate = toDate; return this; }
+
+    public String getStatus() { return status; }
+    public AppointmentViewFilter setStatus(String status) { this.status = status; return this; }
+
+    @Override
+    public String toString() {
+        return "AppointmentViewFilter{doctorId=" + doctorId + ", patientId=" + patientId
+                + ", from=" + fromDate + ", to=" + toDate + ", status=" + status + "}";
+    }
+}
@@ -0,0 +1,146 @@
+package database;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BatchInsert - Inserts many rows with JDBC batching inside one transaction.
+ * Rows are sent in chunks. If a chunk fails, it is rolled back to its savepoint and replayed
+ * row by row, so only the offending rows are reported as failed and the rest still go in.
+ */
+final class BatchInsert {
+    private static final Logger LOGGER = Logger.getLogger(BatchInsert.class.getName());
+    static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /** Sets the statement parameters for one row */
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    /** Stores the generated id on the row once the transaction has committed */
+    interface IdSetter<T> {
+        void setId(T row, int id);
+    }
+
+    private BatchInsert() {
+    }
+
+    /**
+     * Chunk size from db.batch.chunkSize in database.properties
+     */
+    static int configuredChunkSize(DatabaseConnection dbConnection) {
+        try {
+            return Math.max(1, Integer.parseInt(
+                    dbConnection.getProperty("db.batch.chunkSize", String.valueOf(DEFAULT_CHUNK_SIZE))));
+        } catch (NumberFormatException e) {
+            return DEFAULT_CHUNK_SIZE;
+        }
+    }
+
+    static <T> BatchResult execute(DatabaseConnection dbConnection, String sql, List<T> rows, int chunkSize,
+                                   Binder<T> binder, IdSetter<T> idSetter) {
+        int[] ids = new int[rows.size()];
+        Map<Integer, String> failures = new TreeMap<>();
+        if (rows.isEmpty()) {
+            return new BatchResult(ids, failures);
+        }
+        int size = Math.max(1, chunkSize);
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int[] batched = new int[size];
+                for (int start = 0; start < rows.size(); start += size) {
+                    int end = Math.min(rows.size(), start + size);
+                    int count = 0;
+                    for (int i = start; i < end; i++) {
+                        try {
+                            binder.bind(stmt, rows.get(i));
+                            stmt.addBatch();
+                            batched[count++] = i;
+                        } catch (SQLException | RuntimeException e) {
+                            stmt.clearParameters();
+                            failures.put(i, "Invalid row: " + e.getMessage());
+                        }
+                    }
+                    if (count > 0) {
+                        executeChunk(conn, stmt, rows, binder, batched, count, ids, failures);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Batch insert rolled back", e);
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = 0;
+                failures.put(i, "Batch rolled back: " + e.getMessage());
+            }
+            return new BatchResult(ids, failures);
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                idSetter.setId(rows.get(i), ids[i]);
+            }
+        }
+        if (!failures.isEmpty()) {
+            LOGGER.warning("Batch insert: " + failures.size() + " of " + rows.size() + " rows failed");
+        }
+        return new BatchResult(ids, failures);
+    }
+
+    private static <T> void executeChunk(Connection conn, PreparedStatement stmt, List<T> rows, Binder<T> binder,
+                                         int[] batched, int count, int[] ids, Map<Integer, String> failures)
+            throws SQLException {
+        Savepoint chunkStart = conn.setSavepoint();
+        try {
+            stmt.executeBatch();
+            readKeys(stmt, batched, count, ids);
+            conn.releaseSavepoint(chunkStart);
+        } catch (BatchUpdateException e) {
+            stmt.clearBatch();
+            conn.rollback(chunkStart);
+            for (int k = 0; k < count; k++) {
+                insertOne(conn, stmt, rows, binder, batched[k], ids, failures);
+            }
+        }
+    }
+
+    private static <T> void insertOne(Connection conn, PreparedStatement stmt, List<T> rows, Binder<T> binder,
+                                      int index, int[] ids, Map<Integer, String> failures) throws SQLException {
+        Savepoint rowStart = conn.setSavepoint();
+        try {
+            binder.bind(stmt, rows.get(index));
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    ids[index] = keys.getInt(1);
+                }
+            }
+            conn.releaseSavepoint(rowStart);
+        } catch (SQLException e) {
+            conn.rollback(rowStart);
+            failures.put(index, e.getMessage());
+        }
+    }
+
+    private static void readKeys(PreparedStatement stmt, int[] batched, int count, int[] ids) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            int k = 0;
+            while (k < count && keys.next()) {
+                ids[batched[k++]] = keys.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package database;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * BatchResult - Outcome of a batch insert, row by row in input order.
+ * Rows that were inserted have their generated id; failed rows have an error message instead.
+ */
+public class BatchResult {
+    private final int[] generatedIds;
+    private final Map<Integer, String> failures;
+
+    public BatchResult(int[] generatedIds, Map<Integer, String> failures) {
+        this.generatedIds = generatedIds;
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public int size() { return generatedIds.length; }
+
+    public int getSuccessCount() { return generatedIds.length - failures.size(); }
+
+    public int getFailureCount() { return failures.size(); }
+
+    public boolean isSuccess(int index) { return !failures.containsKey(index); }
+
+    /** Generated id of the row at index, or 0 if that row failed */
+    public int getGeneratedId(int index) { return generatedIds[index]; }
+
+    /** Error message per failed row index, in input order */
+    public Map<Integer, String> getFailures() { return failures; }
+}
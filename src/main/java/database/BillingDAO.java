@@ -0,0 +1,273 @@
+package database;
+
+import models.Billing;
+import models.PaymentIdempotencyKey;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BillingDAO - Data Access Object for bills.
+ * Payment status changes are conditional on the current status so concurrent changes cannot both win.
+ * Every bill insert and status change updates the patient's billing ledger in the same transaction.
+ */
+public class BillingDAO {
+    private static final Logger LOGGER = Logger.getLogger(BillingDAO.class.getName());
+    // mapBilling reads columns by position in this order; notes is left out
+    private static final String BILL_COLUMNS = "id, appointment_id, patient_id, doctor_id, amount, "
+            + "service_description, payment_status, payment_date, bill_date";
+    private static final String INSERT_INVOICE = "INSERT INTO billing (appointment_id, patient_id, doctor_id, amount, "
+            + "service_description, payment_status) VALUES (?, ?, ?, ?, ?, 'pending')";
+    private static final int ER_DUP_ENTRY = 1062;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private DatabaseConnection dbConnection;
+
+    public BillingDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in BillingDAO", e);
+        }
+    }
+
+    /**
+     * Get bill by ID, or null if it does not exist or the query failed
+     */
+    public Billing getBillById(int id) {
+        try {
+            return queryBill(id);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving bill: " + id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Get bill by ID, telling a missing bill apart from a failed query
+     * @return the bill, or null if it does not exist
+     * @throws IllegalStateException if the query failed
+     */
+    public Billing findBillById(int id) {
+        try {
+            return queryBill(id);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving bill: " + id, e);
+            throw new IllegalStateException("Could not read bill " + id, e);
+        }
+    }
+
+    private Billing queryBill(int id) throws SQLException {
+        String query = "SELECT " + BILL_COLUMNS + " FROM billing WHERE id = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapBilling(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Insert a bill and add it to the patient's ledger; the generated id is set on the bill
+     */
+    public boolean createBill(Billing bill) {
+        String query = "INSERT INTO billing (appointment_id, patient_id, doctor_id, amount, service_description, "
+                + "payment_status, payment_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, bill.getAppointmentId());
+                stmt.setInt(2, bill.getPatientId());
+                stmt.setInt(3, bill.getDoctorId());
+                stmt.setBigDecimal(4, bill.getAmount());
+                stmt.setString(5, bill.getServiceDescription());
+                stmt.setString(6, bill.getPaymentStatus());
+                stmt.setTimestamp(7, bill.getPaymentDate() != null ? Timestamp.valueOf(bill.getPaymentDate()) : null);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        bill.setId(keys.getInt(1));
+                    }
+                }
+                PatientBillingLedgerDAO.addDelta(conn, bill.getPatientId(), 1, bill.getPaymentStatus(), bill.getAmount());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error creating bill for appointment: " + bill.getAppointmentId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Insert pending invoices for appointments that have no bill yet, as JDBC batches in one
+     * transaction per chunk of db.batch.chunkSize, together with the patients' ledger deltas.
+     * Appointments that already have a bill are skipped, so rerunning after a failure never bills twice.
+     * A chunk that deadlocks or meets a bill inserted concurrently is rolled back and retried.
+     * @return the number of invoices inserted, or -1 if a chunk failed (earlier chunks stay committed)
+     */
+    public int createInvoices(List<Billing> invoices) {
+        int chunkSize = BatchInsert.configuredChunkSize(dbConnection);
+        int inserted = 0;
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int start = 0; start < invoices.size(); start += chunkSize) {
+                inserted += insertChunk(conn, invoices.subList(start, Math.min(start + chunkSize, invoices.size())));
+            }
+            return inserted;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error creating invoices after " + inserted + " were inserted", e);
+            return -1;
+        }
+    }
+
+    private int insertChunk(Connection conn, List<Billing> chunk) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int inserted = insertInvoices(conn, chunk);
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                if (attempt >= MAX_CHUNK_ATTEMPTS || !isRetryable(e)) {
+                    throw e;
+                }
+                LOGGER.log(Level.FINE, "Retrying invoice chunk after attempt " + attempt, e);
+            }
+        }
+    }
+
+    // A deadlock, or a duplicate on uk_billing_appointment from a concurrent run whose bills the retry skips
+    private static boolean isRetryable(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (next.getErrorCode() == ER_LOCK_DEADLOCK || next.getErrorCode() == ER_DUP_ENTRY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int insertInvoices(Connection conn, List<Billing> chunk) throws SQLException {
+        // A plain consistent read takes no locks; uk_billing_appointment stops a bill inserted
+        // concurrently after this read, failing the chunk so the retry skips it
+        Set<Integer> billed = new HashSet<>();
+        String billedQuery = "SELECT appointment_id FROM billing WHERE appointment_id IN ("
+                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(billedQuery)) {
+            for (int i = 0; i < chunk.size(); i++) {
+                stmt.setInt(i + 1, chunk.get(i).getAppointmentId());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    billed.add(rs.getInt(1));
+                }
+            }
+        }
+        // Sorted so parallel runs for different doctors lock shared patients' ledger rows in the same order
+        Map<Integer, Integer> billsByPatient = new TreeMap<>();
+        Map<Integer, BigDecimal> amountByPatient = new TreeMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_INVOICE)) {
+            for (Billing invoice : chunk) {
+                if (billed.contains(invoice.getAppointmentId())) {
+                    continue;
+                }
+                stmt.setInt(1, invoice.getAppointmentId());
+                stmt.setInt(2, invoice.getPatientId());
+                stmt.setInt(3, invoice.getDoctorId());
+                stmt.setBigDecimal(4, invoice.getAmount());
+                stmt.setString(5, invoice.getServiceDescription());
+                stmt.addBatch();
+                invoice.setPaymentStatus("pending");
+                billsByPatient.merge(invoice.getPatientId(), 1, Integer::sum);
+                amountByPatient.merge(invoice.getPatientId(), invoice.getAmount(), BigDecimal::add);
+            }
+            stmt.executeBatch();
+        }
+        PatientBillingLedgerDAO.addDeltas(conn, "pending", billsByPatient, amountByPatient);
+        return chunk.size() - billed.size();
+    }
+
+    /**
+     * Change a bill's payment status if it still has the status it was read with,
+     * and move its amount between the patient's ledger totals in the same transaction.
+     * The payment date is set when a bill becomes completed.
+     * @return false if the status had already changed or the update failed
+     */
+    public boolean updatePaymentStatus(Billing bill, String newStatus) {
+        return updatePaymentStatus(bill, newStatus, null);
+    }
+
+    /**
+     * Change a bill's payment status as above and record the payment's idempotency key
+     * in the same transaction. The key is inserted first, so a repeat that races with the
+     * original waits for it and then fails without touching the bill.
+     * @return false if the key was already recorded, the status had already changed or the update failed
+     */
+    public boolean updatePaymentStatus(Billing bill, String newStatus, PaymentIdempotencyKey key) {
+        String query = "UPDATE billing SET payment_status = ?, "
+                + "payment_date = IF(? = 'completed', CURRENT_TIMESTAMP, payment_date) "
+                + "WHERE id = ? AND payment_status = ?";
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            if (key != null) {
+                try {
+                    PaymentKeyDAO.insert(conn, key);
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    conn.rollback();
+                    return false;
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, newStatus);
+                stmt.setString(2, newStatus);
+                stmt.setInt(3, bill.getId());
+                stmt.setString(4, bill.getPaymentStatus());
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                // patient_id and amount never change, so the values read with the bill are current
+                PatientBillingLedgerDAO.addDelta(conn, bill.getPatientId(), 0, bill.getPaymentStatus(), bill.getAmount().negate());
+                PatientBillingLedgerDAO.addDelta(conn, bill.getPatientId(), 0, newStatus, bill.getAmount());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating payment status of bill: " + bill.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Map a BILL_COLUMNS row to a Billing object
+     */
+    private Billing mapBilling(ResultSet rs) throws SQLException {
+        Billing bill = new Billing();
+        bill.setId(rs.getInt(1));
+        bill.setAppointmentId(rs.getInt(2));
+        bill.setPatientId(rs.getInt(3));
+        bill.setDoctorId(rs.getInt(4));
+        bill.setAmount(rs.getBigDecimal(5));
+        bill.setServiceDescription(rs.getString(6));
+        bill.setPaymentStatus(rs.getString(7));
+        Timestamp paymentDate = rs.getTimestamp(8);
+        bill.setPaymentDate(paymentDate != null ? paymentDate.toLocalDateTime() : null);
+        Timestamp billDate = rs.getTimestamp(9);
+        bill.setBillDate(billDate != null ? billDate.toLocalDateTime() : null);
+        return bill;
+    }
+}
@@ -0,0 +1,84 @@
+package database;
+
+import models.BillingExportRow;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BillingExportDAO - Streams bills joined with their appointments for finance exports.
+ * Rows are read from a forward-only cursor in batches of db.stream.fetchSize and handed
+ * to the caller one at a time, so memory use does not grow with the size of the export.
+ */
+public class BillingExportDAO {
+    private static final Logger LOGGER = Logger.getLogger(BillingExportDAO.class.getName());
+    // mapRow reads columns by position in this order
+    public static final String SELECT_EXPORT = "SELECT b.id, b.bill_date, b.amount, b.payment_status, b.payment_date, "
+            + "b.service_description, a.id, a.appointment_date, a.appointment_time, a.status, "
+            + "b.patient_id, p.username, b.doctor_id, d.username "
+            + "FROM billing b "
+            + "JOIN appointments a ON a.id = b.appointment_id "
+            + "JOIN users p ON p.id = b.patient_id "
+            + "JOIN users d ON d.id = b.doctor_id "
+            + "WHERE b.bill_date >= ? AND b.bill_date < ? "
+            + "ORDER BY b.bill_date, b.id";
+    private DatabaseConnection dbConnection;
+
+    public BillingExportDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in BillingExportDAO", e);
+        }
+    }
+
+    /**
+     * Stream the bills dated from..to (both inclusive) in (bill_date, id) order.
+     * An exception thrown by the action stops the stream, closes the cursor and is rethrown.
+     * @return number of rows delivered, or -1 if the query failed
+     */
+    public long streamBills(LocalDate from, LocalDate to, Consumer<BillingExportRow> action) {
+        long count = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = dbConnection.prepareStreaming(conn, SELECT_EXPORT, dbConnection.getStreamFetchSize())) {
+            stmt.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapRow(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming billing export after " + count + " rows", e);
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Map a SELECT_EXPORT row to a BillingExportRow object
+     */
+    private BillingExportRow mapRow(ResultSet rs) throws SQLException {
+        BillingExportRow row = new BillingExportRow();
+        row.setBillId(rs.getInt(1));
+        Timestamp billDate = rs.getTimestamp(2);
+        row.setBillDate(billDate != null ? billDate.toLocalDateTime() : null);
+        row.setAmount(rs.getBigDecimal(3));
+        row.setPaymentStatus(rs.getString(4));
+        Timestamp paymentDate = rs.getTimestamp(5);
+        row.setPaymentDate(paymentDate != null ? paymentDate.toLocalDateTime() : null);
+        row.setServiceDescription(rs.getString(6));
+        row.setAppointmentId(rs.getInt(7));
+        row.setAppointmentDate(rs.getDate(8).toLocalDate());
+        row.setAppointmentTime(rs.getTime(9).toLocalTime());
+        row.setAppointmentStatus(rs.getString(10));
+        row.setPatientId(rs.getInt(11));
+        row.setPatientUsername(rs.getString(12));
+        row.setDoctorId(rs.getInt(13));
+        row.setDoctorUsername(rs.getString(14));
+        return row;
+    }
+}
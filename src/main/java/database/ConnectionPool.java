@@ -0,0 +1,268 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ConnectionPool - Bounded JDBC connection pool backing DatabaseConnection.
+ * Supports min/max size, acquire timeout, idle eviction, validation on borrow and max lifetime.
+ * Each pooled connection carries its own LRU prepared statement cache.
+ */
+final class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    // Most recently released connections sit at the head so hot connections are reused first
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    ConnectionPool(Properties properties) throws SQLException {
+        this.url = properties.getProperty("db.url");
+        this.username = properties.getProperty("db.username");
+        this.password = properties.getProperty("db.password");
+        this.maxSize = Math.max(1, intProperty(properties, "db.pool.maxSize", 10));
+        this.minSize = Math.min(maxSize, Math.max(0, intProperty(properties, "db.pool.minSize", 2)));
+        this.acquireTimeoutMs = longProperty(properties, "db.pool.acquireTimeoutMs", 5000L);
+        this.idleTimeoutMs = longProperty(properties, "db.pool.idleTimeoutMs", 600000L);
+        this.maxLifetimeMs = longProperty(properties, "db.pool.maxLifetimeMs", 1800000L);
+        this.validationTimeoutSeconds = intProperty(properties, "db.pool.validationTimeoutSeconds", 2);
+        this.statementCacheSize = intProperty(properties, "db.pool.statementCacheSize", 64);
+        long housekeepingIntervalMs = longProperty(properties, "db.pool.housekeepingIntervalMs", 30000L);
+        this.permits = new Semaphore(maxSize, true);
+
+        fillToMinimum();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                housekeepingIntervalMs, housekeepingIntervalMs, TimeUnit.MILLISECONDS);
+        LOGGER.info("Connection pool started (min=" + minSize + ", max=" + maxSize + ")");
+    }
+
+    /**
+     * Borrow a connection, waiting up to the acquire timeout for one to become available.
+     * The returned connection goes back to the pool when closed.
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw timeout();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            while (true) {
+                PooledConnection pooled = idle.pollFirst();
+                if (pooled == null) {
+                    pooled = tryCreate();
+                    if (pooled != null) {
+                        return pooled.lease();
+                    }
+                    // Pool is at max size but a connection is on its way back
+                    long remaining = deadline - System.nanoTime();
+                    pooled = remaining > 0 ? idle.pollFirst(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (pooled == null) {
+                        throw timeout();
+                    }
+                }
+                if (isUsable(pooled)) {
+                    return pooled.lease();
+                }
+                destroy(pooled);
+            }
+        } catch (InterruptedException e) {
+            permits.release();
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a borrowed connection. Called by the logical connection's close().
+     */
+    void release(PooledConnection pooled) {
+        try {
+            if (closed || isExpired(pooled, System.currentTimeMillis()) || pooled.getPhysical().isClosed()) {
+                destroy(pooled);
+            } else {
+                pooled.reset();
+                pooled.markReleased();
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding connection that could not be reset", e);
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        LOGGER.info("Connection pool closed");
+    }
+
+    int getTotalCount() {
+        return total.get();
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    int getActiveCount() {
+        return Math.max(0, total.get() - idle.size());
+    }
+
+    long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (isExpired(pooled, System.currentTimeMillis())) {
+            return false;
+        }
+        try {
+            return pooled.getPhysical().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Pooled connection failed validation", e);
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return maxLifetimeMs > 0 && now - pooled.getCreatedAt() >= maxLifetimeMs;
+    }
+
+    /**
+     * Open a new physical connection if the pool has not reached its max size.
+     * @return the new connection, or null if the pool is full
+     */
+    private PooledConnection tryCreate() throws SQLException {
+        while (true) {
+            int current = total.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (total.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        try {
+            return new PooledConnection(DriverManager.getConnection(url, username, password), this,
+                    new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses));
+        } catch (SQLException e) {
+            total.decrementAndGet();
+            LOGGER.log(Level.SEVERE, "Failed to establish database connection", e);
+            throw e;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (!closed && total.get() < minSize) {
+            PooledConnection pooled = tryCreate();
+            if (pooled == null) {
+                return;
+            }
+            idle.offerLast(pooled);
+        }
+    }
+
+    /**
+     * Evict idle and expired connections, then top the pool back up to its minimum size.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledConnection pooled = oldestFirst.next();
+            boolean idleTooLong = idleTimeoutMs > 0 && total.get() > minSize
+                    && now - pooled.getLastReleasedAt() >= idleTimeoutMs;
+            if ((idleTooLong || isExpired(pooled, now)) && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Unable to refill connection pool to minimum size", e);
+        }
+    }
+
+    private SQLTimeoutException timeout() {
+        return new SQLTimeoutException("Timed out after " + acquireTimeoutMs
+                + "ms waiting for a database connection (pool max size " + maxSize + ")");
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        return (int) longProperty(properties, key, defaultValue);
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
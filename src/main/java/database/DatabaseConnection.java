@@ -3,7 +3,8 @@ package database;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Properties;
 import java.util.logging.Level;
@@ -12,44 +13,61 @@ import java.util.logging.Logger;
 /**
  * Singleton class to manage database connections.
  * Implements thread-safe singleton pattern and proper encapsulation.
+ * Connections are handed out from a bounded pool; closing a connection returns it to the pool.
  */
 public class DatabaseConnection {
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
+    private static final String OVERRIDE_PREFIX = "healthcare.";
     private static volatile DatabaseConnection instance;
-    private Connection connection;
+    private ConnectionPool pool;
     private final Properties properties = new Properties();
 
     private DatabaseConnection() throws SQLException {
         loadProperties();
-        initializeConnection();
+        initializePool();
+        if (Boolean.parseBoolean(getProperty("db.migrate.onStartup", "true"))) {
+            migrateSchema();
+        }
     }
 
     private void loadProperties() {
         try (InputStream input = getClass().getClassLoader().getResourceAsStream("database.properties")) {
             if (input == null) {
                 LOGGER.severe("Unable to find database.properties");
-                return;
+            } else {
+                properties.load(input);
             }
-            properties.load(input);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error loading database properties", e);
         }
+        // -Dhealthcare.<key>=<value> overrides <key> from the file, e.g. -Dhealthcare.db.url=...
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(OVERRIDE_PREFIX)) {
+                properties.setProperty(name.substring(OVERRIDE_PREFIX.length()), System.getProperty(name));
+            }
+        }
     }
 
-    private void initializeConnection() throws SQLException {
+    private void initializePool() throws SQLException {
         try {
             Class.forName(properties.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
-            this.connection = DriverManager.getConnection(
-                properties.getProperty("db.url"),
-                properties.getProperty("db.username"),
-                properties.getProperty("db.password")
-            );
-            LOGGER.info("Database connection established successfully");
+            this.pool = new ConnectionPool(properties);
+            LOGGER.info("Database connection pool established successfully");
         } catch (ClassNotFoundException e) {
             LOGGER.log(Level.SEVERE, "MySQL JDBC Driver not found", e);
             throw new SQLException("Failed to load database driver", e);
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to establish database connection", e);
+            LOGGER.log(Level.SEVERE, "Failed to establish database connection pool", e);
+            throw e;
+        }
+    }
+
+    private void migrateSchema() throws SQLException {
+        try {
+            new SchemaMigrator(this).migrate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database schema migration failed", e);
+            pool.close();
             throw e;
         }
     }
@@ -65,28 +83,56 @@ public class DatabaseConnection {
         return instance;
     }
 
+    /**
+     * Borrow a pooled connection. Callers must close it (try-with-resources) to return it to the pool.
+     */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            synchronized (DatabaseConnection.class) {
-                if (connection == null || connection.isClosed()) {
-                    initializeConnection();
-                }
-            }
-        }
-        return connection;
+        return pool.borrow();
     }
 
-    public void closeConnection() {
+    /**
+     * Prepare a forward-only, read-only statement for streaming large result sets.
+     * Rows are fetched in batches of fetchSize instead of being buffered in full.
+     */
+    public PreparedStatement prepareStreaming(Connection conn, String sql, int fetchSize) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(fetchSize);
+        return stmt;
+    }
+
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue).trim();
+    }
+
+    public int getStreamFetchSize() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                LOGGER.info("Database connection closed");
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error closing database connection", e);
+            return Integer.parseInt(properties.getProperty("db.stream.fetchSize", "500").trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid db.stream.fetchSize, using 500");
+            return 500;
         }
     }
 
+    public int getActiveConnections() {
+        return pool.getActiveCount();
+    }
+
+    public int getIdleConnections() {
+        return pool.getIdleCount();
+    }
+
+    public long getStatementCacheHits() {
+        return pool.getStatementCacheHits();
+    }
+
+    public long getStatementCacheMisses() {
+        return pool.getStatementCacheMisses();
+    }
+
+    public void closeConnection() {
+        pool.close();
+    }
+
     public void shutdown() {
         closeConnection();
         instance = null;
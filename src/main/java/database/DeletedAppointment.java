@@ -0,0 +1,23 @@
+package database;
+
+import models.Appointment;
+import models.Billing;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DeletedAppointment - An appointment as it was when deleted, together with the bills deleted with it.
+ */
+public class DeletedAppointment {
+    private final Appointment appointment;
+    private final List<Billing> bills;
+
+    public DeletedAppointment(Appointment appointment, List<Billing> bills) {
+        this.appointment = appointment;
+        this.bills = Collections.unmodifiableList(bills);
+    }
+
+    public Appointment getAppointment() { return appointment; }
+
+    public List<Billing> getBills() { return bills; }
+}
@@ -1,9 +1,11 @@
 package database;
 
 import models.Doctor;
+import utils.IntObjectMap;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,7 +15,11 @@ import java.util.logging.Logger;
  */
 public class DoctorDAO {
     private static final Logger LOGGER = Logger.getLogger(DoctorDAO.class.getName());
+    // Listings never need the password hash; mapDoctor reads columns by position in this order
+    private static final String DOCTOR_COLUMNS = "id, username, role, email, phone, specialization, consultation_fee";
+    public static final String SELECT_ALL_DOCTORS = "SELECT " + DOCTOR_COLUMNS + " FROM users WHERE role = 'doctor'";
     private DatabaseConnection dbConnection;
+    private final UserCache userCache = UserCache.getInstance();
 
     public DoctorDAO() {
         try {
@@ -27,7 +33,7 @@ public class DoctorDAO {
      * Get doctor by ID
      */
     public Doctor getDoctorById(int doctorId) {
-        String query = "SELECT * FROM users WHERE id = ? AND role = 'doctor'";
+        String query = "SELECT " + DOCTOR_COLUMNS + " FROM users WHERE id = ? AND role = 'doctor'";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, doctorId);
@@ -42,12 +48,27 @@ public class DoctorDAO {
         return null;
     }
 
+    /**
+     * Get many doctors by id with chunked IN queries. Duplicate ids are looked up once;
+     * ids that are not doctors are absent from the map.
+     */
+    public IntObjectMap<Doctor> getDoctorsByIds(int[] ids) {
+        IntObjectMap<Doctor> doctors = new IntObjectMap<>(ids.length);
+        try {
+            MultiGet.fetch(dbConnection, "SELECT " + DOCTOR_COLUMNS + " FROM users WHERE role = 'doctor' AND id", MultiGet.distinct(ids),
+                    this::mapDoctor, doctors);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving " + ids.length + " doctors by ID", e);
+        }
+        return doctors;
+    }
+
     /**
      * Get all doctors
      */
     public List<Doctor> getAllDoctors() {
         List<Doctor> doctors = new ArrayList<>();
-        String query = "SELECT * FROM users WHERE role = 'doctor'";
+        String query = SELECT_ALL_DOCTORS;
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
@@ -60,6 +81,35 @@ public class DoctorDAO {
         return doctors;
     }
 
+    /**
+     * Stream all doctors to the given action without buffering them in memory.
+     * Rows are read from a forward-only cursor using the configured fetch size.
+     * @return number of rows delivered, or -1 if the query failed
+     */
+    public int streamAllDoctors(Consumer<Doctor> action) {
+        return streamAllDoctors(dbConnection.getStreamFetchSize(), action);
+    }
+
+    /**
+     * Stream all doctors using an explicit fetch size
+     */
+    public int streamAllDoctors(int fetchSize, Consumer<Doctor> action) {
+        String query = SELECT_ALL_DOCTORS;
+        int count = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = dbConnection.prepareStreaming(conn, query, fetchSize);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(mapDoctor(rs));
+                count++;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming doctors after " + count + " rows", e);
+            return -1;
+        }
+        return count;
+    }
+
     /**
      * Update doctor details
      */
@@ -70,7 +120,9 @@ public class DoctorDAO {
             stmt.setString(1, doctor.getEmail());
             stmt.setString(2, doctor.getPhone());
             stmt.setInt(3, doctor.getId());
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            userCache.invalidateId(doctor.getId());
+            return updated;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating doctor: " + doctor.getId(), e);
             return false;
@@ -85,7 +137,9 @@ public class DoctorDAO {
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, doctorId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            userCache.invalidateId(doctorId);
+            return deleted;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error deleting doctor: " + doctorId, e);
             return false;
@@ -97,12 +151,13 @@ public class DoctorDAO {
      */
     private Doctor mapDoctor(ResultSet rs) throws SQLException {
         Doctor doctor = new Doctor();
-        doctor.setId(rs.getInt("id"));
-        doctor.setUsername(rs.getString("username"));
-        doctor.setPasswordHash(rs.getString("password_hash"));
-        doctor.setRole(rs.getString("role"));
-        doctor.setEmail(rs.getString("email"));
-        doctor.setPhone(rs.getString("phone"));
+        doctor.setId(rs.getInt(1));
+        doctor.setUsername(rs.getString(2));
+        doctor.setRole(rs.getString(3));
+        doctor.setEmail(rs.getString(4));
+        doctor.setPhone(rs.getString(5));
+        doctor.setSpecialization(rs.getString(6));
+        doctor.setConsultationFee(rs.getDouble(7));
         return doctor;
     }
 }
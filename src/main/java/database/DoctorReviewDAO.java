@@ -0,0 +1,78 @@
+package database;
+
+import models.DoctorReview;
+import utils.IntObjectMap;
+import java.sql.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DoctorReviewDAO - Data Access Object for doctor reviews and ratings.
+ */
+public class DoctorReviewDAO {
+    private static final Logger LOGGER = Logger.getLogger(DoctorReviewDAO.class.getName());
+    private DatabaseConnection dbConnection;
+
+    public DoctorReviewDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in DoctorReviewDAO", e);
+        }
+    }
+
+    /**
+     * Create a new review and set its generated id
+     */
+    public boolean createReview(DoctorReview review) {
+        String query = "INSERT INTO doctor_reviews (doctor_id, patient_id, appointment_id, rating, review_text, is_verified) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, review.getDoctorId());
+            stmt.setInt(2, review.getPatientId());
+            stmt.setObject(3, review.getAppointmentId(), Types.INTEGER);
+            stmt.setObject(4, review.getRating(), Types.INTEGER);
+            stmt.setString(5, review.getReviewText());
+            stmt.setBoolean(6, review.isVerified());
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    review.setId(keys.getInt(1));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error creating review for doctor: " + review.getDoctorId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Count every doctor's ratings by star value in one grouped query.
+     * @return per doctor id, an array where index n - 1 holds the number of n-star ratings
+     */
+    public IntObjectMap<int[]> getRatingHistograms() {
+        IntObjectMap<int[]> histograms = new IntObjectMap<>();
+        String query = "SELECT doctor_id, rating, COUNT(*) FROM doctor_reviews "
+                + "WHERE rating BETWEEN 1 AND 5 GROUP BY doctor_id, rating";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int doctorId = rs.getInt(1);
+                int[] histogram = histograms.get(doctorId);
+                if (histogram == null) {
+                    histogram = new int[5];
+                    histograms.put(doctorId, histogram);
+                }
+                histogram[rs.getInt(2) - 1] = rs.getInt(3);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving rating histograms", e);
+        }
+        return histograms;
+    }
+}
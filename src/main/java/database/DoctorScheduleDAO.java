@@ -13,6 +13,9 @@ import java.util.logging.Logger;
  */
 public class DoctorScheduleDAO {
     private static final Logger LOGGER = Logger.getLogger(DoctorScheduleDAO.class.getName());
+    // mapSchedule reads columns by position in this order
+    private static final String SCHEDULE_COLUMNS = "id, doctor_id, day_of_week, start_time, end_time";
+    public static final String SELECT_BY_DOCTOR = "SELECT " + SCHEDULE_COLUMNS + " FROM doctor_schedules WHERE doctor_id = ?";
     private DatabaseConnection dbConnection;
 
     public DoctorScheduleDAO() {
@@ -24,17 +27,25 @@ public class DoctorScheduleDAO {
     }
 
     /**
-     * Create a new schedule entry
+     * Create a new schedule entry and set its generated id
      */
     public boolean createSchedule(DoctorSchedule schedule) {
         String query = "INSERT INTO doctor_schedules (doctor_id, day_of_week, start_time, end_time) VALUES (?, ?, ?, ?)";
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, schedule.getDoctorId());
             stmt.setString(2, schedule.getDayOfWeek());
             stmt.setTime(3, Time.valueOf(schedule.getStartTime()));
             stmt.setTime(4, Time.valueOf(schedule.getEndTime()));
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    schedule.setId(keys.getInt(1));
+                }
+            }
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error creating doctor schedule", e);
             return false;
@@ -46,7 +57,7 @@ public class DoctorScheduleDAO {
      */
     public List<DoctorSchedule> getScheduleByDoctor(int doctorId) {
         List<DoctorSchedule> schedules = new ArrayList<>();
-        String query = "SELECT * FROM doctor_schedules WHERE doctor_id = ?";
+        String query = SELECT_BY_DOCTOR;
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, doctorId);
@@ -81,11 +92,11 @@ public class DoctorScheduleDAO {
      */
     private DoctorSchedule mapSchedule(ResultSet rs) throws SQLException {
         DoctorSchedule schedule = new DoctorSchedule();
-        schedule.setId(rs.getInt("id"));
-        schedule.setDoctorId(rs.getInt("doctor_id"));
-        schedule.setDayOfWeek(rs.getString("day_of_week"));
-        schedule.setStartTime(rs.getTime("start_time").toLocalTime());
-        schedule.setEndTime(rs.getTime("end_time").toLocalTime());
+        schedule.setId(rs.getInt(1));
+        schedule.setDoctorId(rs.getInt(2));
+        schedule.setDayOfWeek(rs.getString(3));
+        schedule.setStartTime(rs.getTime(4).toLocalTime());
+        schedule.setEndTime(rs.getTime(5).toLocalTime());
         return schedule;
     }
 }
@@ -0,0 +1,164 @@
+package database;
+
+import models.DoctorStatistics;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DoctorStatisticsDAO - Data Access Object for the doctor_statistics table.
+ * Rows are changed by adding deltas, so concurrent updates never overwrite each other,
+ * and can be recomputed from the source tables by reconcile.
+ */
+public class DoctorStatisticsDAO {
+    private static final Logger LOGGER = Logger.getLogger(DoctorStatisticsDAO.class.getName());
+    // mapStatistics reads columns by position in this order
+    private static final String SELECT_STATISTICS = "SELECT s.doctor_id, u.username, s.total_appointments, "
+            + "s.cancelled_appointments, s.total_reviews, s.rating_count, s.rating_sum, s.total_revenue "
+            + "FROM doctor_statistics s JOIN users u ON u.id = s.doctor_id";
+    private static final String ADD_DELTA = "INSERT INTO doctor_statistics (doctor_id, total_appointments, "
+            + "cancelled_appointments, total_reviews, rating_count, rating_sum, total_revenue) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "total_appointments = total_appointments + VALUES(total_appointments), "
+            + "cancelled_appointments = cancelled_appointments + VALUES(cancelled_appointments), "
+            + "total_reviews = total_reviews + VALUES(total_reviews), "
+            + "rating_count = rating_count + VALUES(rating_count), "
+            + "rating_sum = rating_sum + VALUES(rating_sum), "
+            + "total_revenue = total_revenue + VALUES(total_revenue)";
+    // Same totals as the initial fill in V3__doctor_statistics_table.sql, for a single doctor
+    private static final String RECONCILE = "INSERT INTO doctor_statistics (doctor_id, total_appointments, "
+            + "cancelled_appointments, total_reviews, rating_count, rating_sum, total_revenue) "
+            + "SELECT ?, "
+            + "(SELECT COUNT(*) FROM appointments WHERE doctor_id = ?), "
+            + "(SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND status = 'cancelled'), "
+            + "(SELECT COUNT(*) FROM doctor_reviews WHERE doctor_id = ?), "
+            + "(SELECT COUNT(rating) FROM doctor_reviews WHERE doctor_id = ?), "
+            + "(SELECT COALESCE(SUM(rating), 0) FROM doctor_reviews WHERE doctor_id = ?), "
+            + "(SELECT COALESCE(SUM(amount), 0) FROM billing WHERE doctor_id = ? AND payment_status = 'completed') "
+            + "ON DUPLICATE KEY UPDATE total_appointments = VALUES(total_appointments), "
+            + "cancelled_appointments = VALUES(cancelled_appointments), total_reviews = VALUES(total_reviews), "
+            + "rating_count = VALUES(rating_count), rating_sum = VALUES(rating_sum), "
+            + "total_revenue = VALUES(total_revenue)";
+    private DatabaseConnection dbConnection;
+
+    public DoctorStatisticsDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in DoctorStatisticsDAO", e);
+        }
+    }
+
+    /**
+     * Add deltas to a doctor's totals, creating the row if the doctor has none yet
+     */
+    public boolean addDeltas(int doctorId, int appointments, int cancelled, int reviews,
+                             int ratings, int ratingSum, BigDecimal revenue) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ADD_DELTA)) {
+            stmt.setInt(1, doctorId);
+            stmt.setInt(2, appointments);
+            stmt.setInt(3, cancelled);
+            stmt.setInt(4, reviews);
+            stmt.setInt(5, ratings);
+            stmt.setInt(6, ratingSum);
+            stmt.setBigDecimal(7, revenue);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating statistics for doctor: " + doctorId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Recompute one doctor's totals from the appointments, doctor_reviews and billing tables
+     */
+    public boolean reconcile(int doctorId) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RECONCILE)) {
+            for (int i = 1; i <= 7; i++) {
+                stmt.setInt(i, doctorId);
+            }
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reconciling statistics for doctor: " + doctorId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the ids of all doctors, for reconciliation
+     */
+    public List<Integer> getDoctorIds() {
+        List<Integer> ids = new ArrayList<>();
+        String query = "SELECT id FROM users WHERE role = 'doctor'";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving doctor ids", e);
+        }
+        return ids;
+    }
+
+    /**
+     * Get the statistics row of one doctor, or null if it has none
+     */
+    public DoctorStatistics getStatistics(int doctorId) {
+        String query = SELECT_STATISTICS + " WHERE s.doctor_id = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, doctorId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapStatistics(rs);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving statistics for doctor: " + doctorId, e);
+        }
+        return null;
+    }
+
+    /**
+     * Get the statistics of all doctors, busiest first
+     */
+    public List<DoctorStatistics> getAllStatistics() {
+        List<DoctorStatistics> statistics = new ArrayList<>();
+        String query = SELECT_STATISTICS + " ORDER BY s.total_appointments DESC";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                statistics.add(mapStatistics(rs));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving doctor statistics", e);
+        }
+        return statistics;
+    }
+
+    /**
+     * Map a SELECT_STATISTICS row to a DoctorStatistics object
+     */
+    private DoctorStatistics mapStatistics(ResultSet rs) throws SQLException {
+        DoctorStatistics statistics = new DoctorStatistics();
+        statistics.setDoctorId(rs.getInt(1));
+        statistics.setUsername(rs.getString(2));
+        statistics.setTotalAppointments(rs.getInt(3));
+        statistics.setCancelledAppointments(rs.getInt(4));
+        statistics.setTotalReviews(rs.getInt(5));
+        statistics.setRatingCount(rs.getInt(6));
+        statistics.setRatingSum(rs.getInt(7));
+        statistics.setTotalRevenue(rs.getBigDecimal(8));
+        return statistics;
+    }
+}
@@ -10,9 +10,18 @@ import java.util.logging.Logger;
 /**
  * MedicalRecordDAO - Data Access Object for Medical Records.
  * Implements Singleton pattern and proper exception handling.
+ * getRecordsByPatient returns summaries without the diagnosis, treatment and notes TEXT columns;
+ * use getMedicalRecordById or loadDetails for them.
  */
 public class MedicalRecordDAO {
     private static final Logger LOGGER = Logger.getLogger(MedicalRecordDAO.class.getName());
+    private static final String INSERT_RECORD = "INSERT INTO medical_records "
+            + "(patient_id, doctor_id, record_date, diagnosis, treatment, notes) VALUES (?, ?, ?, ?, ?, ?)";
+    // mapMedicalRecord and mapDetails read columns by position, so keep them in step with these lists
+    private static final String SUMMARY_COLUMNS = "id, patient_id, doctor_id, record_date";
+    private static final String DETAIL_COLUMNS = "diagnosis, treatment, notes";
+    public static final String SELECT_BY_PATIENT = "SELECT " + SUMMARY_COLUMNS + " FROM medical_records "
+            + "WHERE patient_id = ? ORDER BY record_date DESC, id DESC";
     private DatabaseConnection dbConnection;
 
     public MedicalRecordDAO() {
@@ -24,36 +33,54 @@ public class MedicalRecordDAO {
     }
 
     /**
-     * Create a new medical record
+     * Create a new medical record and set its generated id
      */
     public boolean createMedicalRecord(MedicalRecord record) {
-        String query = "INSERT INTO medical_records (patient_id, doctor_id, record_date, diagnosis, treatment, notes) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, record.getPatientId());
-            stmt.setInt(2, record.getDoctorId());
-            stmt.setDate(3, Date.valueOf(record.getRecordDate()));
-            stmt.setString(4, record.getDiagnosis());
-            stmt.setString(5, record.getTreatment());
-            stmt.setString(6, record.getNotes());
-            return stmt.executeUpdate() > 0;
+             PreparedStatement stmt = conn.prepareStatement(INSERT_RECORD, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(stmt, record);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    record.setId(keys.getInt(1));
+                }
+            }
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error creating medical record", e);
             return false;
         }
     }
 
+    /**
+     * Create many medical records in one transaction using JDBC batching, in chunks of db.batch.chunkSize.
+     * Rows that fail are reported in the result without aborting the others.
+     * Generated ids are set on the inserted records.
+     */
+    public BatchResult createMedicalRecords(List<MedicalRecord> records) {
+        return createMedicalRecords(records, BatchInsert.configuredChunkSize(dbConnection));
+    }
+
+    public BatchResult createMedicalRecords(List<MedicalRecord> records, int chunkSize) {
+        return BatchInsert.execute(dbConnection, INSERT_RECORD, records, chunkSize,
+                MedicalRecordDAO::bindInsert, MedicalRecord::setId);
+    }
+
     /**
      * Get medical record by ID
      */
     public MedicalRecord getMedicalRecordById(int id) {
-        String query = "SELECT * FROM medical_records WHERE id = ?";
+        String query = "SELECT " + SUMMARY_COLUMNS + ", " + DETAIL_COLUMNS + " FROM medical_records WHERE id = ?";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapMedicalRecord(rs);
+                    MedicalRecord record = mapMedicalRecord(rs);
+                    mapDetails(rs, 5, record);
+                    return record;
                 }
             }
         } catch (SQLException e) {
@@ -63,11 +90,32 @@ public class MedicalRecordDAO {
     }
 
     /**
-     * Get all medical records for a patient
+     * Load the diagnosis, treatment and notes of a record returned by getRecordsByPatient
+     * @return false if the record no longer exists or the query failed
+     */
+    public boolean loadDetails(MedicalRecord record) {
+        String query = "SELECT " + DETAIL_COLUMNS + " FROM medical_records WHERE id = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, record.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    mapDetails(rs, 1, record);
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading details for medical record: " + record.getId(), e);
+        }
+        return false;
+    }
+
+    /**
+     * Get summaries of all medical records for a patient, newest first
      */
     public List<MedicalRecord> getRecordsByPatient(int patientId) {
         List<MedicalRecord> records = new ArrayList<>();
-        String query = "SELECT * FROM medical_records WHERE patient_id = ?";
+        String query = SELECT_BY_PATIENT;
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, patientId);
@@ -115,18 +163,33 @@ public class MedicalRecordDAO {
         }
     }
 
+    private static void bindInsert(PreparedStatement stmt, MedicalRecord record) throws SQLException {
+        stmt.setInt(1, record.getPatientId());
+        stmt.setInt(2, record.getDoctorId());
+        stmt.setDate(3, Date.valueOf(record.getRecordDate()));
+        stmt.setString(4, record.getDiagnosis());
+        stmt.setString(5, record.getTreatment());
+        stmt.setString(6, record.getNotes());
+    }
+
     /**
-     * Map ResultSet to MedicalRecord object
+     * Map a SUMMARY_COLUMNS row to a MedicalRecord object, leaving the TEXT fields unset
      */
     private MedicalRecord mapMedicalRecord(ResultSet rs) throws SQLException {
         MedicalRecord record = new MedicalRecord();
-        record.setId(rs.getInt("id"));
-        record.setPatientId(rs.getInt("patient_id"));
-        record.setDoctorId(rs.getInt("doctor_id"));
-        record.setRecordDate(rs.getDate("record_date").toLocalDate());
-        record.setDiagnosis(rs.getString("diagnosis"));
-        record.setTreatment(rs.getString("treatment"));
-        record.setNotes(rs.getString("notes"));
+        record.setId(rs.getInt(1));
+        record.setPatientId(rs.getInt(2));
+        record.setDoctorId(rs.getInt(3));
+        record.setRecordDate(rs.getDate(4).toLocalDate());
         return record;
     }
+
+    /**
+     * Read the DETAIL_COLUMNS starting at the given column position into the record
+     */
+    private void mapDetails(ResultSet rs, int first, MedicalRecord record) throws SQLException {
+        record.setDiagnosis(rs.getString(first));
+        record.setTreatment(rs.getString(first + 1));
+        record.setNotes(rs.getString(first + 2));
+    }
 }
@@ -0,0 +1,75 @@
+package database;
+
+import utils.IntObjectMap;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * MultiGet - Loads many rows by id with chunked IN (...) queries instead of one query per id.
+ * Ids are deduplicated first. Each chunk's placeholder list is padded to a power of two
+ * (repeating the last id), so only a handful of distinct statements reach the statement cache.
+ */
+final class MultiGet {
+    static final int MAX_CHUNK = 512;
+
+    /** Maps the current row of a result set */
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private MultiGet() {
+    }
+
+    /**
+     * Sorted, duplicate-free copy of the ids
+     */
+    static int[] distinct(int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * Run "selectPrefix IN (...)" over the ids and collect rows keyed by their id column.
+     * @param selectPrefix query up to the IN list, e.g. "SELECT id, username FROM users WHERE id"
+     */
+    static <T> void fetch(DatabaseConnection dbConnection, String selectPrefix, int[] distinctIds,
+                          RowMapper<T> mapper, IntObjectMap<T> into) throws SQLException {
+        if (distinctIds.length == 0) {
+            return;
+        }
+        try (Connection conn = dbConnection.getConnection()) {
+            for (int start = 0; start < distinctIds.length; start += MAX_CHUNK) {
+                int count = Math.min(MAX_CHUNK, distinctIds.length - start);
+                int padded = count == 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+                try (PreparedStatement stmt = conn.prepareStatement(selectPrefix + placeholders(padded))) {
+                    for (int i = 0; i < padded; i++) {
+                        stmt.setInt(i + 1, distinctIds[start + Math.min(i, count - 1)]);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            into.put(rs.getInt("id"), mapper.map(rs));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(6 + count * 2).append(" IN (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(')').toString();
+    }
+}
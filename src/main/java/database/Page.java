@@ -0,0 +1,24 @@
+package database;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page - One page of a keyset-paginated listing.
+ * The next cursor is null when there are no further rows.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,179 @@
+package database;
+
+import models.PatientBillingLedger;
+import utils.IntObjectMap;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PatientBillingLedgerDAO - Data Access Object for the patient_billing_ledger table.
+ * Rows are changed by adding deltas inside BillingDAO's transactions, so a patient's totals
+ * always match the bills that were committed with them. Ledgers can be recomputed from
+ * the billing table for verification and repair.
+ */
+public class PatientBillingLedgerDAO {
+    private static final Logger LOGGER = Logger.getLogger(PatientBillingLedgerDAO.class.getName());
+    // mapLedger reads columns by position in this order
+    private static final String LEDGER_COLUMNS = "patient_id, total_bills, total_paid, total_pending, total_cancelled";
+    // The same totals computed from billing, in LEDGER_COLUMNS order
+    private static final String COMPUTED_COLUMNS = "COUNT(*), "
+            + "COALESCE(SUM(CASE WHEN payment_status = 'completed' THEN amount ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN payment_status = 'pending' THEN amount ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN payment_status = 'cancelled' THEN amount ELSE 0 END), 0)";
+    private static final String ADD_DELTA = "INSERT INTO patient_billing_ledger (" + LEDGER_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "total_bills = total_bills + VALUES(total_bills), "
+            + "total_paid = total_paid + VALUES(total_paid), "
+            + "total_pending = total_pending + VALUES(total_pending), "
+            + "total_cancelled = total_cancelled + VALUES(total_cancelled)";
+    private static final String REBUILD = "INSERT INTO patient_billing_ledger (" + LEDGER_COLUMNS + ") "
+            + "SELECT ?, " + COMPUTED_COLUMNS + " FROM billing WHERE patient_id = ? "
+            + "ON DUPLICATE KEY UPDATE total_bills = VALUES(total_bills), total_paid = VALUES(total_paid), "
+            + "total_pending = VALUES(total_pending), total_cancelled = VALUES(total_cancelled)";
+    private DatabaseConnection dbConnection;
+
+    public PatientBillingLedgerDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in PatientBillingLedgerDAO", e);
+        }
+    }
+
+    /**
+     * Add a bill count and an amount under one payment status to a patient's ledger,
+     * on the caller's connection so it commits or rolls back with the bill change.
+     */
+    static void addDelta(Connection conn, int patientId, int bills, String status, BigDecimal amount)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(ADD_DELTA)) {
+            stmt.setInt(1, patientId);
+            stmt.setInt(2, bills);
+            stmt.setBigDecimal(3, "completed".equals(status) ? amount : BigDecimal.ZERO);
+            stmt.setBigDecimal(4, "pending".equals(status) ? amount : BigDecimal.ZERO);
+            stmt.setBigDecimal(5, "cancelled".equals(status) ? amount : BigDecimal.ZERO);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Add bill counts and amounts under one payment status to many patients' ledgers as one batch,
+     * on the caller's connection, in the iteration order of billsByPatient
+     */
+    static void addDeltas(Connection conn, String status, Map<Integer, Integer> billsByPatient,
+                          Map<Integer, BigDecimal> amountByPatient) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(ADD_DELTA)) {
+            for (Map.Entry<Integer, Integer> patient : billsByPatient.entrySet()) {
+                BigDecimal amount = amountByPatient.get(patient.getKey());
+                stmt.setInt(1, patient.getKey());
+                stmt.setInt(2, patient.getValue());
+                stmt.setBigDecimal(3, "completed".equals(status) ? amount : BigDecimal.ZERO);
+                stmt.setBigDecimal(4, "pending".equals(status) ? amount : BigDecimal.ZERO);
+                stmt.setBigDecimal(5, "cancelled".equals(status) ? amount : BigDecimal.ZERO);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Get a patient's ledger; a patient without bills gets an all-zero ledger
+     * @return the ledger, or null if the query failed
+     */
+    public PatientBillingLedger getLedger(int patientId) {
+        String query = "SELECT " + LEDGER_COLUMNS + " FROM patient_billing_ledger WHERE patient_id = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, patientId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapLedger(rs) : new PatientBillingLedger(patientId);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving billing ledger of patient: " + patientId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Get the smallest and largest user id, bounding every patient id in billing and the ledger
+     * @return {min, max}, or null if there are no users or the query failed
+     */
+    public int[] getPatientIdRange() {
+        String query = "SELECT MIN(id), MAX(id) FROM users";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next() && rs.getObject(1) != null) {
+                return new int[] {rs.getInt(1), rs.getInt(2)};
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving patient id range", e);
+        }
+        return null;
+    }
+
+    /**
+     * Get the stored ledgers of patients with fromId <= id < toId
+     * @throws SQLException so a failed chunk is not mistaken for an empty one
+     */
+    public IntObjectMap<PatientBillingLedger> getLedgers(int fromId, int toId) throws SQLException {
+        return loadLedgers("SELECT " + LEDGER_COLUMNS + " FROM patient_billing_ledger "
+                + "WHERE patient_id >= ? AND patient_id < ?", fromId, toId);
+    }
+
+    /**
+     * Compute the ledgers of patients with fromId <= id < toId from the billing table
+     * @throws SQLException so a failed chunk is not mistaken for an empty one
+     */
+    public IntObjectMap<PatientBillingLedger> computeLedgers(int fromId, int toId) throws SQLException {
+        return loadLedgers("SELECT patient_id, " + COMPUTED_COLUMNS + " FROM billing "
+                + "WHERE patient_id >= ? AND patient_id < ? GROUP BY patient_id", fromId, toId);
+    }
+
+    /**
+     * Overwrite a patient's ledger with the totals computed from the billing table
+     */
+    public boolean rebuild(int patientId) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(REBUILD)) {
+            stmt.setInt(1, patientId);
+            stmt.setInt(2, patientId);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error rebuilding billing ledger of patient: " + patientId, e);
+            return false;
+        }
+    }
+
+    private IntObjectMap<PatientBillingLedger> loadLedgers(String query, int fromId, int toId) throws SQLException {
+        IntObjectMap<PatientBillingLedger> ledgers = new IntObjectMap<>();
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, fromId);
+            stmt.setInt(2, toId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PatientBillingLedger ledger = mapLedger(rs);
+                    ledgers.put(ledger.getPatientId(), ledger);
+                }
+            }
+        }
+        return ledgers;
+    }
+
+    /**
+     * Map a LEDGER_COLUMNS row to a PatientBillingLedger object
+     */
+    private PatientBillingLedger mapLedger(ResultSet rs) throws SQLException {
+        PatientBillingLedger ledger = new PatientBillingLedger(rs.getInt(1));
+        ledger.setTotalBills(rs.getInt(2));
+        ledger.setTotalPaid(rs.getBigDecimal(3));
+        ledger.setTotalPending(rs.getBigDecimal(4));
+        ledger.setTotalCancelled(rs.getBigDecimal(5));
+        return ledger;
+    }
+}
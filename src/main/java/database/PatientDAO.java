@@ -1,9 +1,11 @@
 package database;
 
 import models.Patient;
+import utils.IntObjectMap;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,7 +15,11 @@ import java.util.logging.Logger;
  */
 public class PatientDAO {
     private static final Logger LOGGER = Logger.getLogger(PatientDAO.class.getName());
+    // Listings never need the password hash; mapPatient reads columns by position in this order
+    private static final String PATIENT_COLUMNS = "id, username, role, email, phone";
+    public static final String SELECT_BY_IDS = "SELECT " + PATIENT_COLUMNS + " FROM users WHERE role = 'patient' AND id";
     private DatabaseConnection dbConnection;
+    private final UserCache userCache = UserCache.getInstance();
     
     public PatientDAO() {
         try {
@@ -24,13 +30,14 @@ public class PatientDAO {
     }
     
     public Patient getPatientById(int patientId) {
-        String query = "SELECT * FROM users WHERE id = ? AND role = 'patient'";
+        String query = "SELECT " + PATIENT_COLUMNS + " FROM users WHERE id = ? AND role = 'patient'";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, patientId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return mapPatient(rs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapPatient(rs);
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error retrieving patient by ID: " + patientId, e);
@@ -38,9 +45,24 @@ public class PatientDAO {
         return null;
     }
     
+    /**
+     * Get many patients by id with chunked IN queries. Duplicate ids are looked up once;
+     * ids that are not patients are absent from the map.
+     */
+    public IntObjectMap<Patient> getPatientsByIds(int[] ids) {
+        IntObjectMap<Patient> patients = new IntObjectMap<>(ids.length);
+        try {
+            MultiGet.fetch(dbConnection, SELECT_BY_IDS, MultiGet.distinct(ids),
+                    this::mapPatient, patients);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving " + ids.length + " patients by ID", e);
+        }
+        return patients;
+    }
+    
     public List<Patient> getAllPatients() {
         List<Patient> patients = new ArrayList<>();
-        String query = "SELECT * FROM users WHERE role = 'patient'";
+        String query = "SELECT " + PATIENT_COLUMNS + " FROM users WHERE role = 'patient'";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
@@ -53,6 +75,35 @@ public class PatientDAO {
         return patients;
     }
     
+    /**
+     * Stream all patients to the given action without buffering them in memory.
+     * Rows are read from a forward-only cursor using the configured fetch size.
+     * @return number of rows delivered, or -1 if the query failed
+     */
+    public int streamAllPatients(Consumer<Patient> action) {
+        return streamAllPatients(dbConnection.getStreamFetchSize(), action);
+    }
+
+    /**
+     * Stream all patients using an explicit fetch size
+     */
+    public int streamAllPatients(int fetchSize, Consumer<Patient> action) {
+        String query = "SELECT " + PATIENT_COLUMNS + " FROM users WHERE role = 'patient'";
+        int count = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = dbConnection.prepareStreaming(conn, query, fetchSize);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(mapPatient(rs));
+                count++;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming patients after " + count + " rows", e);
+            return -1;
+        }
+        return count;
+    }
+
     public boolean updatePatient(Patient patient) {
         String query = "UPDATE users SET email = ?, phone = ? WHERE id = ? AND role = 'patient'";
         try (Connection conn = dbConnection.getConnection();
@@ -60,7 +111,9 @@ public class PatientDAO {
             stmt.setString(1, patient.getEmail());
             stmt.setString(2, patient.getPhone());
             stmt.setInt(3, patient.getId());
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            userCache.invalidateId(patient.getId());
+            return updated;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating patient with ID: " + patient.getId(), e);
             return false;
@@ -72,7 +125,9 @@ public class PatientDAO {
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, patientId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            userCache.invalidateId(patientId);
+            return deleted;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error deleting patient with ID: " + patientId, e);
             return false;
@@ -81,12 +136,11 @@ public class PatientDAO {
     
     private Patient mapPatient(ResultSet rs) throws SQLException {
         Patient patient = new Patient();
-        patient.setId(rs.getInt("id"));
-        patient.setUsername(rs.getString("username"));
-        patient.setPasswordHash(rs.getString("password_hash"));
-        patient.setRole(rs.getString("role"));
-        patient.setEmail(rs.getString("email"));
-        patient.setPhone(rs.getString("phone"));
+        patient.setId(rs.getInt(1));
+        patient.setUsername(rs.getString(2));
+        patient.setRole(rs.getString(3));
+        patient.setEmail(rs.getString(4));
+        patient.setPhone(rs.getString(5));
         return patient;
     }
 }
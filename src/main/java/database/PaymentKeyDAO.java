@@ -0,0 +1,102 @@
+package database;
+
+import models.PaymentIdempotencyKey;
+import java.sql.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PaymentKeyDAO - Data Access Object for the payment_idempotency_keys table.
+ * A key recorded for an applied payment is inserted in the same transaction as the bill change
+ * (BillingDAO.updatePaymentStatus), so a key exists exactly when its change was committed.
+ */
+public class PaymentKeyDAO {
+    private static final Logger LOGGER = Logger.getLogger(PaymentKeyDAO.class.getName());
+    private static final String INSERT_KEY = "INSERT INTO payment_idempotency_keys "
+            + "(idempotency_key, bill_id, payment_status, result) VALUES (?, ?, ?, ?)";
+    private static final int PURGE_BATCH = 10_000;
+    private DatabaseConnection dbConnection;
+
+    public PaymentKeyDAO() {
+        try {
+            this.dbConnection = DatabaseConnection.getInstance();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Database connection initialization failed in PaymentKeyDAO", e);
+        }
+    }
+
+    /**
+     * Record a key on the caller's connection, inside its transaction
+     * @throws SQLIntegrityConstraintViolationException if the key was already recorded
+     */
+    static void insert(Connection conn, PaymentIdempotencyKey key) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_KEY)) {
+            bind(stmt, key);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Record a key whose outcome did not change any bill; keeps the first record if the key already exists
+     * @return 1 if the key was recorded, 0 if it already existed, or -1 if the insert failed
+     */
+    public int save(PaymentIdempotencyKey key) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_KEY.replace("INSERT INTO", "INSERT IGNORE INTO"))) {
+            bind(stmt, key);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error saving idempotency key: " + key.getKey(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * Get a recorded key, or null if it is unknown or the lookup failed
+     */
+    public PaymentIdempotencyKey findKey(String key) {
+        String query = "SELECT idempotency_key, bill_id, payment_status, result "
+                + "FROM payment_idempotency_keys WHERE idempotency_key = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PaymentIdempotencyKey(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getString(4));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving idempotency key: " + key, e);
+        }
+        return null;
+    }
+
+    /**
+     * Delete keys older than the given number of days, in batches so no long lock is held
+     * @return the number of keys deleted
+     */
+    public int purgeOlderThan(int days) {
+        String query = "DELETE FROM payment_idempotency_keys "
+                + "WHERE created_at < CURRENT_TIMESTAMP - INTERVAL ? DAY LIMIT " + PURGE_BATCH;
+        int purged = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, days);
+            int deleted;
+            do {
+                deleted = stmt.executeUpdate();
+                purged += deleted;
+            } while (deleted == PURGE_BATCH);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error purging idempotency keys after " + purged + " rows", e);
+        }
+        return purged;
+    }
+
+    private static void bind(PreparedStatement stmt, PaymentIdempotencyKey key) throws SQLException {
+        stmt.setString(1, key.getKey());
+        stmt.setInt(2, key.getBillId());
+        stmt.setString(3, key.getPaymentStatus());
+        stmt.setString(4, key.getResult());
+    }
+}
@@ -0,0 +1,135 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PooledConnection - A physical JDBC connection owned by the ConnectionPool.
+ * Callers only ever see a logical proxy whose close() hands the connection back to the pool.
+ * Statements prepared from plain SQL text are served from a per-connection StatementCache.
+ */
+final class PooledConnection {
+    private static final Logger LOGGER = Logger.getLogger(PooledConnection.class.getName());
+
+    private final Connection physical;
+    private final ConnectionPool pool;
+    private final StatementCache statementCache;
+    private final long createdAt;
+    private volatile long lastReleasedAt;
+
+    PooledConnection(Connection physical, ConnectionPool pool, StatementCache statementCache) {
+        this.physical = physical;
+        this.pool = pool;
+        this.statementCache = statementCache;
+        this.createdAt = System.currentTimeMillis();
+        this.lastReleasedAt = createdAt;
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastReleasedAt() {
+        return lastReleasedAt;
+    }
+
+    void markReleased() {
+        this.lastReleasedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Create a new logical handle for one borrow. Each handle can be closed exactly once.
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler());
+    }
+
+    /**
+     * Restore per-borrow state so the next caller gets a clean connection.
+     */
+    void reset() throws SQLException {
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+        physical.clearWarnings();
+    }
+
+    void closePhysical() {
+        statementCache.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error closing pooled connection", e);
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(name) && isCacheable(args)) {
+                return prepareCached((Connection) proxy, args);
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Only prepareStatement(String) and prepareStatement(String, autoGeneratedKeys) are cached.
+         */
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+
+        private PreparedStatement prepareCached(Connection owner, Object[] args) throws SQLException {
+            final String sql = (String) args[0];
+            if (args.length == 1) {
+                return statementCache.prepare(sql, owner, () -> physical.prepareStatement(sql));
+            }
+            final int autoGeneratedKeys = (Integer) args[1];
+            return statementCache.prepare(autoGeneratedKeys + ":" + sql, owner,
+                    () -> physical.prepareStatement(sql, autoGeneratedKeys));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * SchemaMigrator - Applies versioned SQL migrations from the classpath on top of database/schema.sql.
+ * Migrations are listed in order in db/migration/migrations.txt and named V&lt;version&gt;__&lt;description&gt;.sql.
+ * Applied versions are recorded in the schema_version table, so each migration runs once per database.
+ * Migration files are split on ';' and must not contain semicolons inside string literals.
+ */
+final class SchemaMigrator {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String MIGRATION_DIR = "db/migration/";
+    private static final String INDEX_FILE = MIGRATION_DIR + "migrations.txt";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "healthcare_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    // MySQL ER_DUP_FIELDNAME and ER_DUP_KEYNAME: the column or index of a partially applied
+    // migration, or of a database created from a newer schema.sql, already exists
+    private static final int DUPLICATE_COLUMN_NAME = 1060;
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    private final DatabaseConnection db;
+
+    SchemaMigrator(DatabaseConnection db) {
+        this.db = db;
+    }
+
+    /**
+     * Apply all pending migrations in order.
+     * @return the number of migrations applied
+     * @throws SQLException if a migration fails; later migrations are not attempted
+     */
+    int migrate() throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        try (Connection conn = db.getConnection()) {
+            // Serializes application instances that start at the same time
+            lock(conn);
+            try {
+                createVersionTable(conn);
+                Map<Integer, Long> applied = loadAppliedVersions(conn);
+                int count = 0;
+                for (Migration migration : migrations) {
+                    Long checksum = applied.get(migration.version);
+                    if (checksum == null) {
+                        apply(conn, migration);
+                        count++;
+                    } else if (checksum != migration.checksum) {
+                        LOGGER.warning("Migration V" + migration.version + " was changed after it was applied");
+                    }
+                }
+                LOGGER.info(count == 0 ? "Database schema is up to date"
+                        : "Applied " + count + " schema migration(s)");
+                return count;
+            } finally {
+                unlock(conn);
+            }
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        LOGGER.info("Applying schema migration V" + migration.version + " " + migration.description);
+        long started = System.nanoTime();
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != DUPLICATE_KEY_NAME && e.getErrorCode() != DUPLICATE_COLUMN_NAME) {
+                        throw new SQLException("Migration V" + migration.version + " failed at: " + sql, e);
+                    }
+                    LOGGER.warning("Column or index already exists, skipping: " + sql);
+                }
+            }
+        }
+        String insert = "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setLong(3, migration.checksum);
+            stmt.setLong(4, (System.nanoTime() - started) / 1_000_000L);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "checksum BIGINT NOT NULL, "
+                    + "execution_ms BIGINT NOT NULL, "
+                    + "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private Map<Integer, Long> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private void lock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Failed to release the schema migration lock", e);
+        }
+    }
+
+    private List<Migration> loadMigrations() throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        int previous = 0;
+        for (String line : readResource(INDEX_FILE).split("\n")) {
+            String name = line.trim();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = FILE_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new SQLException("Invalid migration file name: " + name);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= previous) {
+                throw new SQLException("Migrations must be listed in increasing version order: " + name);
+            }
+            previous = version;
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '),
+                    readResource(MIGRATION_DIR + name)));
+        }
+        return migrations;
+    }
+
+    private String readResource(String path) throws SQLException {
+        InputStream input = getClass().getClassLoader().getResourceAsStream(path);
+        if (input == null) {
+            throw new SQLException("Migration resource not found: " + path);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            throw new SQLException("Unable to read migration resource " + path, e);
+        }
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final long checksum;
+        final List<String> statements = new ArrayList<>();
+
+        Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            CRC32 crc = new CRC32();
+            crc.update(script.getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+            StringBuilder sql = new StringBuilder();
+            for (String line : script.split("\n")) {
+                if (!line.trim().startsWith("--")) {
+                    sql.append(line).append('\n');
+                }
+            }
+            for (String statement : sql.toString().split(";")) {
+                if (!statement.trim().isEmpty()) {
+                    statements.add(statement.trim());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package database;
+
+/**
+ * SlotConflictException - Thrown when an insert would create a second active
+ * appointment for the same doctor, date and time.
+ */
+public class SlotConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public SlotConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,184 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * StatementCache - LRU cache of prepared statements for a single pooled connection, keyed by SQL text.
+ * Closing a cached statement clears its parameters and batch and restores the limits it was created with
+ * (max rows, fetch size, query timeout), so the next caller gets it as if freshly prepared;
+ * a statement that cannot be reset is closed and dropped from the cache.
+ * A pooled connection is used by one thread at a time, so the cache itself is not synchronized.
+ */
+final class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    /**
+     * Creates the physical statement on a cache miss.
+     */
+    interface StatementFactory {
+        PreparedStatement create() throws SQLException;
+    }
+
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final LinkedHashMap<String, CachedStatement> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Return a cached statement for the key, preparing and caching a new one on a miss.
+     * If the cached statement is already checked out, an uncached statement is returned instead.
+     */
+    PreparedStatement prepare(String key, Connection owner, StatementFactory factory) throws SQLException {
+        CachedStatement cached = entries.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            return cached.checkOut(owner);
+        }
+        misses.incrementAndGet();
+        PreparedStatement physical = factory.create();
+        if (cached != null || maxSize <= 0) {
+            return physical;
+        }
+        try {
+            cached = new CachedStatement(key, physical);
+        } catch (SQLException e) {
+            physical.close();
+            throw e;
+        }
+        entries.put(key, cached);
+        evictOverflow();
+        return cached.checkOut(owner);
+    }
+
+    void closeAll() {
+        for (CachedStatement cached : entries.values()) {
+            cached.closePhysical();
+        }
+        entries.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> eldestFirst = entries.values().iterator();
+        while (entries.size() > maxSize && eldestFirst.hasNext()) {
+            CachedStatement eldest = eldestFirst.next();
+            if (!eldest.inUse) {
+                eldestFirst.remove();
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    private final class CachedStatement {
+        private final String key;
+        private final PreparedStatement physical;
+        private final int maxRows;
+        private final int fetchSize;
+        private final int queryTimeout;
+        private boolean inUse;
+
+        CachedStatement(String key, PreparedStatement physical) throws SQLException {
+            this.key = key;
+            this.physical = physical;
+            this.maxRows = physical.getMaxRows();
+            this.fetchSize = physical.getFetchSize();
+            this.queryTimeout = physical.getQueryTimeout();
+        }
+
+        PreparedStatement checkOut(Connection owner) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CheckOutHandler(this, owner));
+        }
+
+        void checkIn() {
+            inUse = false;
+            try {
+                if (physical.isClosed()) {
+                    entries.remove(key);
+                    return;
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+                physical.setMaxRows(maxRows);
+                physical.setFetchSize(fetchSize);
+                physical.setQueryTimeout(queryTimeout);
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Dropping cached statement that could not be reset", e);
+                entries.remove(key);
+                closePhysical();
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error closing cached statement", e);
+            }
+        }
+    }
+
+    private static final class CheckOutHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private boolean closed;
+
+        CheckOutHandler(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.key + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
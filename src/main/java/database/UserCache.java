@@ -0,0 +1,175 @@
+package database;
+
+import models.User;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * UserCache - Bounded, TTL-based cache of users by id and by username.
+ * Unknown usernames are cached as negative entries so registration checks skip the database.
+ * Shared by UserDAO, DoctorDAO and PatientDAO, which invalidate entries on every write.
+ */
+final class UserCache {
+    private static final Logger LOGGER = Logger.getLogger(UserCache.class.getName());
+    private static volatile UserCache instance;
+
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final int maxSize;
+    private final ConcurrentHashMap<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> byUsername = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * A cached lookup result; user is null for a negative entry.
+     */
+    static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        User getUser() {
+            return user == null ? null : copy(user);
+        }
+    }
+
+    private UserCache(long ttlMs, long negativeTtlMs, int maxSize) {
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.maxSize = maxSize;
+    }
+
+    static UserCache getInstance() {
+        if (instance == null) {
+            synchronized (UserCache.class) {
+                if (instance == null) {
+                    long ttlSeconds = 300;
+                    long negativeTtlSeconds = 30;
+                    int maxSize = 10000;
+                    try {
+                        DatabaseConnection db = DatabaseConnection.getInstance();
+                        ttlSeconds = Long.parseLong(db.getProperty("cache.user.ttlSeconds", "300"));
+                        negativeTtlSeconds = Long.parseLong(db.getProperty("cache.user.negativeTtlSeconds", "30"));
+                        maxSize = Integer.parseInt(db.getProperty("cache.user.maxSize", "10000"));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default user cache settings", e);
+                    }
+                    instance = new UserCache(ttlSeconds * 1000, negativeTtlSeconds * 1000, maxSize);
+                }
+            }
+        }
+        return instance;
+    }
+
+    long currentGeneration() {
+        return generation.get();
+    }
+
+    Entry getById(int id) {
+        return live(byId, id);
+    }
+
+    Entry getByUsername(String username) {
+        return live(byUsername, normalize(username));
+    }
+
+    /**
+     * Cache a user loaded from the database, unless an invalidation happened since the load began.
+     * Invalidation bumps the generation before removing, so one that ran between the first check
+     * and publishing is seen by the second check, which takes the entry back out.
+     */
+    void put(User user, long loadGeneration) {
+        if (maxSize <= 0 || generation.get() != loadGeneration) {
+            return;
+        }
+        makeRoom();
+        Entry entry = new Entry(copy(user), System.currentTimeMillis() + ttlMs);
+        String username = normalize(user.getUsername());
+        byId.put(user.getId(), entry);
+        byUsername.put(username, entry);
+        if (generation.get() != loadGeneration) {
+            byId.remove(user.getId(), entry);
+            byUsername.remove(username, entry);
+        }
+    }
+
+    void putMissing(String username, long loadGeneration) {
+        if (maxSize <= 0 || generation.get() != loadGeneration) {
+            return;
+        }
+        makeRoom();
+        Entry entry = new Entry(null, System.currentTimeMillis() + negativeTtlMs);
+        String key = normalize(username);
+        byUsername.put(key, entry);
+        if (generation.get() != loadGeneration) {
+            byUsername.remove(key, entry);
+        }
+    }
+
+    void invalidateId(int id) {
+        generation.incrementAndGet();
+        Entry entry = byId.remove(id);
+        if (entry != null && entry.user != null) {
+            byUsername.remove(normalize(entry.user.getUsername()));
+        }
+    }
+
+    void invalidateUsername(String username) {
+        generation.incrementAndGet();
+        Entry entry = byUsername.remove(normalize(username));
+        if (entry != null && entry.user != null) {
+            byId.remove(entry.user.getId());
+        }
+    }
+
+    private <K> Entry live(ConcurrentHashMap<K, Entry> map, K key) {
+        Entry entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            map.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // Drop expired entries first, then arbitrary ones, until there is headroom
+    private void makeRoom() {
+        if (byUsername.size() < maxSize && byId.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        byId.values().removeIf(e -> e.expiresAt <= now);
+        byUsername.values().removeIf(e -> e.expiresAt <= now);
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<Entry> it = byUsername.values().iterator();
+        while (byUsername.size() > target && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            if (entry.user != null) {
+                byId.remove(entry.user.getId(), entry);
+            }
+        }
+    }
+
+    // MySQL's default collation compares usernames case-insensitively
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getUsername(), user.getPasswordHash(),
+                user.getRole(), user.getEmail(), user.getPhone());
+    }
+}
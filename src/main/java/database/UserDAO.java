@@ -1,19 +1,28 @@
 package database;
 
 import models.User;
+import utils.IntObjectMap;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * UserDAO - Data Access Object for User operations.
  * Synchronized with schema.sql and follows Java OOP principles.
+ * Lookups by id and username are served from the shared UserCache.
  */
 public class UserDAO {
     private static final Logger LOGGER = Logger.getLogger(UserDAO.class.getName());
+    // mapResultSetToUser reads columns by position in this order
+    private static final String USER_COLUMNS = "id, username, password_hash, role, email, phone";
+    public static final String SELECT_BY_ID = "SELECT " + USER_COLUMNS + " FROM users WHERE id = ?";
+    public static final String SELECT_BY_USERNAME = "SELECT " + USER_COLUMNS + " FROM users WHERE username = ?";
     private DatabaseConnection dbConnection;
+    private final UserCache userCache = UserCache.getInstance();
 
     public UserDAO() {
         try {
@@ -26,7 +35,7 @@ public class UserDAO {
     public boolean createUser(User user) {
         String sql = "INSERT INTO users (username, password_hash, role, email, phone) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getPasswordHash());
@@ -34,7 +43,16 @@ public class UserDAO {
             pstmt.setString(4, user.getEmail());
             pstmt.setString(5, user.getPhone());
             
-            return pstmt.executeUpdate() > 0;
+            boolean created = pstmt.executeUpdate() > 0;
+            userCache.invalidateUsername(user.getUsername());
+            if (created) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        user.setId(keys.getInt(1));
+                    }
+                }
+            }
+            return created;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error creating user: " + user.getUsername(), e);
             return false;
@@ -42,14 +60,21 @@ public class UserDAO {
     }
 
     public User getUserById(int userId) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        UserCache.Entry cached = userCache.getById(userId);
+        if (cached != null) {
+            return cached.getUser();
+        }
+        String sql = SELECT_BY_ID;
+        long generation = userCache.currentGeneration();
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    User user = mapResultSetToUser(rs);
+                    userCache.put(user, generation);
+                    return user;
                 }
             }
         } catch (SQLException e) {
@@ -59,25 +84,68 @@ public class UserDAO {
     }
 
     public User getUserByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        UserCache.Entry cached = userCache.getByUsername(username);
+        if (cached != null) {
+            return cached.getUser();
+        }
+        String sql = SELECT_BY_USERNAME;
+        long generation = userCache.currentGeneration();
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    User user = mapResultSetToUser(rs);
+                    userCache.put(user, generation);
+                    return user;
                 }
             }
+            userCache.putMissing(username, generation);
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error retrieving user by username: " + username, e);
         }
         return null;
     }
 
+    /**
+     * Get many users by id in as few queries as possible. Duplicate ids are looked up once;
+     * ids found in the user cache are not queried. Ids with no user are absent from the map.
+     */
+    public IntObjectMap<User> getUsersByIds(int[] ids) {
+        int[] distinct = MultiGet.distinct(ids);
+        IntObjectMap<User> users = new IntObjectMap<>(distinct.length);
+        int[] misses = new int[distinct.length];
+        int missCount = 0;
+        for (int id : distinct) {
+            UserCache.Entry cached = userCache.getById(id);
+            if (cached != null && cached.getUser() != null) {
+                users.put(id, cached.getUser());
+            } else {
+                misses[missCount++] = id;
+            }
+        }
+        if (missCount == 0) {
+            return users;
+        }
+        long generation = userCache.currentGeneration();
+        IntObjectMap<User> loaded = new IntObjectMap<>(missCount);
+        try {
+            MultiGet.fetch(dbConnection, "SELECT " + USER_COLUMNS + " FROM users WHERE id", Arrays.copyOf(misses, missCount),
+                    this::mapResultSetToUser, loaded);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving " + missCount + " users by ID", e);
+        }
+        loaded.forEach((id, user) -> {
+            userCache.put(user, generation);
+            users.put(id, user);
+        });
+        return users;
+    }
+
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users";
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
@@ -91,6 +159,55 @@ public class UserDAO {
         return users;
     }
 
+    /**
+     * Count the users with a role (covered by idx_users_role_username)
+     * @return the count, or -1 if the query failed
+     */
+    public int countUsersByRole(String role) {
+        String sql = "SELECT COUNT(*) FROM users WHERE role = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, role);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting users with role: " + role, e);
+        }
+        return -1;
+    }
+
+    /**
+     * Stream all users to the given action without buffering them in memory.
+     * Rows are read from a forward-only cursor using the configured fetch size.
+     * @return number of rows delivered, or -1 if the query failed
+     */
+    public int streamAllUsers(Consumer<User> action) {
+        return streamAllUsers(dbConnection.getStreamFetchSize(), action);
+    }
+
+    /**
+     * Stream all users using an explicit fetch size
+     */
+    public int streamAllUsers(int fetchSize, Consumer<User> action) {
+        String sql = "SELECT " + USER_COLUMNS + " FROM users";
+        int count = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = dbConnection.prepareStreaming(conn, sql, fetchSize);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(mapResultSetToUser(rs));
+                count++;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming users after " + count + " rows", e);
+            return -1;
+        }
+        return count;
+    }
+
     public boolean updatePassword(int userId, String newPasswordHash) {
         String sql = "UPDATE users SET password_hash = ? WHERE id = ?";
         try (Connection conn = dbConnection.getConnection();
@@ -98,21 +215,61 @@ public class UserDAO {
             
             pstmt.setString(1, newPasswordHash);
             pstmt.setInt(2, userId);
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            userCache.invalidateId(userId);
+            return updated;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating password for user ID: " + userId, e);
             return false;
         }
     }
 
+    /**
+     * Replace a password hash only if it is still the one that was verified, so a rehash
+     * cannot overwrite a password changed in the meantime
+     * @return false if the hash had changed or the update failed
+     */
+    public boolean replacePasswordHash(int userId, String oldPasswordHash, String newPasswordHash) {
+        String sql = "UPDATE users SET password_hash = ? WHERE id = ? AND password_hash = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, newPasswordHash);
+            pstmt.setInt(2, userId);
+            pstmt.setString(3, oldPasswordHash);
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+            userCache.invalidateId(userId);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error replacing password hash for user ID: " + userId, e);
+            return false;
+        }
+    }
+
+    public boolean deleteUser(int userId) {
+        String sql = "DELETE FROM users WHERE id = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, userId);
+            boolean deleted = pstmt.executeUpdate() > 0;
+            userCache.invalidateId(userId);
+            return deleted;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error deleting user ID: " + userId, e);
+            return false;
+        }
+    }
+
     private User mapResultSetToUser(ResultSet rs) throws SQLException {
         User user = new User();
-        user.setId(rs.getInt("id"));
-        user.setUsername(rs.getString("username"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setRole(rs.getString("role"));
-        user.setEmail(rs.getString("email"));
-        user.setPhone(rs.getString("phone"));
+        user.setId(rs.getInt(1));
+        user.setUsername(rs.getString(2));
+        user.setPasswordHash(rs.getString(3));
+        user.setRole(rs.getString(4));
+        user.setEmail(rs.getString(5));
+        user.setPhone(rs.getString(6));
         return user;
     }
 }
@@ -1,7 +1,9 @@
 package models;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 public class Appointment implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -9,7 +11,8 @@ public class Appointment implements Serializable {
     private int appointmentId;
     private int patientId;
     private int doctorId;
-    private LocalDateTime appointmentDateTime;
+    private LocalDate appointmentDate;  // Maps to appointment_date in DB
+    private LocalTime appointmentTime;  // Maps to appointment_time in DB
     private String reason;
     private String status; // pending, confirmed, completed, cancelled
     private String notes;
@@ -20,7 +23,7 @@ public class Appointment implements Serializable {
                       String reason, String status) {
         this.patientId = patientId;
         this.doctorId = doctorId;
-        this.appointmentDateTime = appointmentDateTime;
+        setAppointmentDateTime(appointmentDateTime);
         this.reason = reason;
         this.status = status;
     }
@@ -30,7 +33,7 @@ public class Appointment implements Serializable {
         this.appointmentId = appointmentId;
         this.patientId = patientId;
         this.doctorId = doctorId;
-        this.appointmentDateTime = appointmentDateTime;
+        setAppointmentDateTime(appointmentDateTime);
         this.reason = reason;
         this.status = status;
         this.notes = notes;
@@ -39,6 +42,9 @@ public class Appointment implements Serializable {
     // Getters and Setters
     public int getAppointmentId() { return appointmentId; }
     public void setAppointmentId(int appointmentId) { this.appointmentId = appointmentId; }
+
+    public int getId() { return appointmentId; }
+    public void setId(int id) { this.appointmentId = id; }
     
     public int getPatientId() { return patientId; }
     public void setPatientId(int patientId) { this.patientId = patientId; }
@@ -46,9 +52,18 @@ public class Appointment implements Serializable {
     public int getDoctorId() { return doctorId; }
     public void setDoctorId(int doctorId) { this.doctorId = doctorId; }
     
-    public LocalDateTime getAppointmentDateTime() { return appointmentDateTime; }
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public void setAppointmentDate(LocalDate appointmentDate) { this.appointmentDate = appointmentDate; }
+
+    public LocalTime getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(LocalTime appointmentTime) { this.appointmentTime = appointmentTime; }
+
+    public LocalDateTime getAppointmentDateTime() {
+        return appointmentDate != null && appointmentTime != null ? appointmentDate.atTime(appointmentTime) : null;
+    }
     public void setAppointmentDateTime(LocalDateTime appointmentDateTime) { 
-        this.appointmentDateTime = appointmentDateTime; 
+        this.appointmentDate = appointmentDateTime != null ? appointmentDateTime.toLocalDate() : null;
+        this.appointmentTime = appointmentDateTime != null ? appointmentDateTime.toLocalTime() : null;
     }
     
     public String getReason() { return reason; }
@@ -66,7 +81,8 @@ public class Appointment implements Serializable {
                 "appointmentId=" + appointmentId +
                 ", patientId=" + patientId +
                 ", doctorId=" + doctorId +
-                ", appointmentDateTime=" + appointmentDateTime +
+                ", appointmentDate=" + appointmentDate +
+                ", appointmentTime=" + appointmentTime +
                 ", reason='" + reason + '\'' +
                 ", status='" + status + '\'' +
                 ", notes='" + notes + '\'' +
@@ -0,0 +1,57 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * AppointmentView - Read-only listing row for an appointment.
+ * Carries the doctor and patient usernames and the billing status alongside the appointment,
+ * so lists can be rendered without further lookups. Loaded by AppointmentViewDAO.
+ */
+public class AppointmentView {
+    private int id;
+    private int patientId;
+    private String patientUsername;
+    private int doctorId;
+    private String doctorUsername;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private String status;
+    private String billingStatus; // null when no bill has been raised
+
+    public AppointmentView() {}
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public int getPatientId() { return patientId; }
+    public void setPatientId(int patientId) { this.patientId = patientId; }
+
+    public String getPatientUsername() { return patientUsername; }
+    public void setPatientUsername(String patientUsername) { this.patientUsername = patientUsername; }
+
+    public int getDoctorId() { return doctorId; }
+    public void setDoctorId(int doctorId) { this.doctorId = doctorId; }
+
+    public String getDoctorUsername() { return doctorUsername; }
+    public void setDoctorUsername(String doctorUsername) { this.doctorUsername = doctorUsername; }
+
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public void setAppointmentDate(LocalDate appointmentDate) { this.appointmentDate = appointmentDate; }
+
+    public LocalTime getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(LocalTime appointmentTime) { this.appointmentTime = appointmentTime; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getBillingStatus() { return billingStatus; }
+    public void setBillingStatus(String billingStatus) { this.billingStatus = billingStatus; }
+
+    @Override
+    public String toString() {
+        return "Appointment #" + id + " on " + appointmentDate + " at " + appointmentTime
+                + " - Dr. " + doctorUsername + " with " + patientUsername
+                + " [" + status + (billingStatus != null ? ", bill " + billingStatus : "") + "]";
+    }
+}
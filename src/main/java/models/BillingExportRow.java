@@ -0,0 +1,71 @@
+package models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * BillingExportRow - One bill with its appointment and the patient and doctor usernames,
+ * as streamed by BillingExportDAO for finance exports.
+ */
+public class BillingExportRow {
+    private int billId;
+    private LocalDateTime billDate;
+    private BigDecimal amount;
+    private String paymentStatus;
+    private LocalDateTime paymentDate; // null until paid
+    private String serviceDescription;
+    private int appointmentId;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private String appointmentStatus;
+    private int patientId;
+    private String patientUsername;
+    private int doctorId;
+    private String doctorUsername;
+
+    public BillingExportRow() {}
+
+    public int getBillId() { return billId; }
+    public void setBillId(int billId) { this.billId = billId; }
+
+    public LocalDateTime getBillDate() { return billDate; }
+    public void setBillDate(LocalDateTime billDate) { this.billDate = billDate; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public LocalDateTime getPaymentDate() { return paymentDate; }
+    public void setPaymentDate(LocalDateTime paymentDate) { this.paymentDate = paymentDate; }
+
+    public String getServiceDescription() { return serviceDescription; }
+    public void setServiceDescription(String serviceDescription) { this.serviceDescription = serviceDescription; }
+
+    public int getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(int appointmentId) { this.appointmentId = appointmentId; }
+
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public void setAppointmentDate(LocalDate appointmentDate) { this.appointmentDate = appointmentDate; }
+
+    public LocalTime getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(LocalTime appointmentTime) { this.appointmentTime = appointmentTime; }
+
+    public String getAppointmentStatus() { return appointmentStatus; }
+    public void setAppointmentStatus(String appointmentStatus) { this.appointmentStatus = appointmentStatus; }
+
+    public int getPatientId() { return patientId; }
+    public void setPatientId(int patientId) { this.patientId = patientId; }
+
+    public String getPatientUsername() { return patientUsername; }
+    public void setPatientUsername(String patientUsername) { this.patientUsername = patientUsername; }
+
+    public int getDoctorId() { return doctorId; }
+    public void setDoctorId(int doctorId) { this.doctorId = doctorId; }
+
+    public String getDoctorUsername() { return doctorUsername; }
+    public void setDoctorUsername(String doctorUsername) { this.doctorUsername = doctorUsername; }
+}
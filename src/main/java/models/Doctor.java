@@ -34,7 +34,7 @@ public class Doctor extends User implements Serializable {
     public Doctor(int userId, String username, String email, String phone,
                   String specialization, int yearsOfExperience, 
                   String licenseNumber, double consultationFee) {
-        super(userId, username, email, phone);
+        super(userId, username, null, "doctor", email, phone);
         this.specialization = specialization;
         this.yearsOfExperience = yearsOfExperience;
         this.licenseNumber = licenseNumber;
@@ -89,9 +89,9 @@ public class Doctor extends User implements Serializable {
     @Override
     public String toString() {
         return "Doctor{" +
-                "userId=" + userId +
-                ", username='" + username + '\'' +
-                ", email='" + email + '\'' +
+                "userId=" + getId() +
+                ", username='" + getUsername() + '\'' +
+                ", email='" + getEmail() + '\'' +
                 ", specialization='" + specialization + '\'' +
                 ", yearsOfExperience=" + yearsOfExperience +
                 ", licenseNumber='" + licenseNumber + '\'' +
@@ -0,0 +1,49 @@
+package models;
+
+/**
+ * DoctorRating - Snapshot of a doctor's star ratings, kept in memory by DoctorRatingService
+ */
+public class DoctorRating {
+    private final int doctorId;
+    private final String specialization;
+    private final int[] histogram; // index n - 1 holds the number of n-star ratings
+    private final int ratingCount;
+    private final int ratingSum;
+
+    public DoctorRating(int doctorId, String specialization, int[] histogram) {
+        this.doctorId = doctorId;
+        this.specialization = specialization;
+        this.histogram = histogram.clone();
+        int count = 0;
+        int sum = 0;
+        for (int i = 0; i < this.histogram.length; i++) {
+            count += this.histogram[i];
+            sum += this.histogram[i] * (i + 1);
+        }
+        this.ratingCount = count;
+        this.ratingSum = sum;
+    }
+
+    public int getDoctorId() { return doctorId; }
+
+    public String getSpecialization() { return specialization; }
+
+    public int getRatingCount() { return ratingCount; }
+
+    public int getRatingSum() { return ratingSum; }
+
+    /**
+     * Number of ratings with the given number of stars (1-5)
+     */
+    public int getCount(int stars) { return histogram[stars - 1]; }
+
+    public double getAverageRating() {
+        return ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Doctor #%d (%s): %.2f from %d ratings", doctorId, specialization,
+                getAverageRating(), ratingCount);
+    }
+}
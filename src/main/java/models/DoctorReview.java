@@ -0,0 +1,51 @@
+package models;
+
+import java.time.LocalDateTime;
+
+/**
+ * DoctorReview - A patient's review and optional 1-5 star rating of a doctor
+ */
+public class DoctorReview {
+    private int id;
+    private int doctorId;
+    private int patientId;
+    private Integer appointmentId;
+    private Integer rating; // 1-5, null for a review without a rating
+    private String reviewText;
+    private LocalDateTime reviewDate;
+    private boolean verified;
+
+    public DoctorReview() {}
+
+    public DoctorReview(int doctorId, int patientId, Integer appointmentId, Integer rating, String reviewText) {
+        this.doctorId = doctorId;
+        this.patientId = patientId;
+        this.appointmentId = appointmentId;
+        this.rating = rating;
+        this.reviewText = reviewText;
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public int getDoctorId() { return doctorId; }
+    public void setDoctorId(int doctorId) { this.doctorId = doctorId; }
+
+    public int getPatientId() { return patientId; }
+    public void setPatientId(int patientId) { this.patientId = patientId; }
+
+    public Integer getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Integer appointmentId) { this.appointmentId = appointmentId; }
+
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+
+    public String getReviewText() { return reviewText; }
+    public void setReviewText(String reviewText) { this.reviewText = reviewText; }
+
+    public LocalDateTime getReviewDate() { return reviewDate; }
+    public void setReviewDate(LocalDateTime reviewDate) { this.reviewDate = reviewDate; }
+
+    public boolean isVerified() { return verified; }
+    public void setVerified(boolean verified) { this.verified = verified; }
+}
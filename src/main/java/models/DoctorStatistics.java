@@ -0,0 +1,56 @@
+package models;
+
+import java.math.BigDecimal;
+
+/**
+ * DoctorStatistics - Dashboard totals for one doctor, read from the doctor_statistics table
+ */
+public class DoctorStatistics {
+    private int doctorId;
+    private String username;
+    private int totalAppointments;
+    private int cancelledAppointments;
+    private int totalReviews;
+    private int ratingCount;
+    private int ratingSum;
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    public DoctorStatistics() {}
+
+    public int getDoctorId() { return doctorId; }
+    public void setDoctorId(int doctorId) { this.doctorId = doctorId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public int getTotalAppointments() { return totalAppointments; }
+    public void setTotalAppointments(int totalAppointments) { this.totalAppointments = totalAppointments; }
+
+    public int getCancelledAppointments() { return cancelledAppointments; }
+    public void setCancelledAppointments(int cancelledAppointments) { this.cancelledAppointments = cancelledAppointments; }
+
+    public int getTotalReviews() { return totalReviews; }
+    public void setTotalReviews(int totalReviews) { this.totalReviews = totalReviews; }
+
+    public int getRatingCount() { return ratingCount; }
+    public void setRatingCount(int ratingCount) { this.ratingCount = ratingCount; }
+
+    public int getRatingSum() { return ratingSum; }
+    public void setRatingSum(int ratingSum) { this.ratingSum = ratingSum; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    /**
+     * Average of the rated reviews, or 0 if the doctor has no ratings yet
+     */
+    public double getAverageRating() {
+        return ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Dr. %s: %d appointments (%d cancelled), %d reviews, rating %.2f, revenue %s",
+                username, totalAppointments, cancelledAppointments, totalReviews, getAverageRating(), totalRevenue);
+    }
+}
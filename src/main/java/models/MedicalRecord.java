@@ -39,6 +39,9 @@ public class MedicalRecord implements Serializable {
     // Getters and Setters
     public int getRecordId() { return recordId; }
     public void setRecordId(int recordId) { this.recordId = recordId; }
+
+    public int getId() { return recordId; }
+    public void setId(int id) { this.recordId = id; }
     
     public int getPatientId() { return patientId; }
     public void setPatientId(int patientId) { this.patientId = patientId; }
@@ -27,7 +27,7 @@ public class Patient extends User implements Serializable {
      */
     public Patient(int userId, String username, String email, String phone,
                    Date dateOfBirth, String bloodGroup, double height, double weight) {
-        super(userId, username, email, phone);
+        super(userId, username, null, "patient", email, phone);
         this.dateOfBirth = dateOfBirth;
         this.bloodGroup = bloodGroup;
         this.height = height;
@@ -103,9 +103,9 @@ public class Patient extends User implements Serializable {
     @Override
     public String toString() {
         return "Patient{" +
-                "userId=" + userId +
-                ", username='" + username + '\'' +
-                ", email='" + email + '\'' +
+                "userId=" + getId() +
+                ", username='" + getUsername() + '\'' +
+                ", email='" + getEmail() + '\'' +
                 ", dateOfBirth=" + dateOfBirth +
                 ", bloodGroup='" + bloodGroup + '\'' +
                 ", height=" + height +
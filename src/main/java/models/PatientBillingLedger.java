@@ -0,0 +1,59 @@
+package models;
+
+import java.math.BigDecimal;
+
+/**
+ * PatientBillingLedger - Running billing totals for one patient, read from the patient_billing_ledger table.
+ * Amounts are split by the bills' current payment status.
+ */
+public class PatientBillingLedger {
+    private int patientId;
+    private int totalBills;
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+    private BigDecimal totalPending = BigDecimal.ZERO;
+    private BigDecimal totalCancelled = BigDecimal.ZERO;
+
+    public PatientBillingLedger() {}
+
+    public PatientBillingLedger(int patientId) {
+        this.patientId = patientId;
+    }
+
+    public int getPatientId() { return patientId; }
+    public void setPatientId(int patientId) { this.patientId = patientId; }
+
+    public int getTotalBills() { return totalBills; }
+    public void setTotalBills(int totalBills) { this.totalBills = totalBills; }
+
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public void setTotalPaid(BigDecimal totalPaid) { this.totalPaid = totalPaid; }
+
+    public BigDecimal getTotalPending() { return totalPending; }
+    public void setTotalPending(BigDecimal totalPending) { this.totalPending = totalPending; }
+
+    public BigDecimal getTotalCancelled() { return totalCancelled; }
+    public void setTotalCancelled(BigDecimal totalCancelled) { this.totalCancelled = totalCancelled; }
+
+    /**
+     * Amount the patient still owes, i.e. the total of the pending bills
+     */
+    public BigDecimal getBalance() {
+        return totalPending;
+    }
+
+    /**
+     * True if both ledgers have the same totals; amounts are compared by value, ignoring scale
+     */
+    public boolean sameTotals(PatientBillingLedger other) {
+        return totalBills == other.totalBills
+                && totalPaid.compareTo(other.totalPaid) == 0
+                && totalPending.compareTo(other.totalPending) == 0
+                && totalCancelled.compareTo(other.totalCancelled) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Patient %d: %d bills, paid %s, pending %s, cancelled %s",
+                patientId, totalBills, totalPaid, totalPending, totalCancelled);
+    }
+}
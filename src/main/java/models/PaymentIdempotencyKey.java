@@ -0,0 +1,36 @@
+package models;
+
+/**
+ * PaymentIdempotencyKey - A posted payment's idempotency key with the bill, requested status
+ * and outcome it was first processed with. Immutable.
+ */
+public class PaymentIdempotencyKey {
+    private final String key;
+    private final int billId;
+    private final String paymentStatus;
+    private final String result;
+
+    public PaymentIdempotencyKey(String key, int billId, String paymentStatus, String result) {
+        this.key = key;
+        this.billId = billId;
+        this.paymentStatus = paymentStatus;
+        this.result = result;
+    }
+
+    public String getKey() { return key; }
+    public int getBillId() { return billId; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public String getResult() { return result; }
+
+    /**
+     * True if a repeat of this key asks for the same change
+     */
+    public boolean matches(int billId, String paymentStatus) {
+        return this.billId == billId && this.paymentStatus.equals(paymentStatus);
+    }
+
+    @Override
+    public String toString() {
+        return key + ": bill " + billId + " -> " + paymentStatus + " (" + result + ")";
+    }
+}
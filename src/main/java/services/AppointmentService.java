@@ -0,0 +1,140 @@
+package services;
+
+import database.AppointmentDAO;
+import database.BatchResult;
+import database.DeletedAppointment;
+import database.SlotConflictException;
+import models.Appointment;
+import models.Billing;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * AppointmentService - Business logic for booking and cancelling appointments.
+ * Checks doctor availability before inserting and keeps the availability index in sync.
+ * Double booking is prevented by an in-process slot reservation backed by the
+ * uk_appointments_active_slot unique key, which also covers other application nodes.
+ * Each doctor's daily capacity (max_appointments_per_day) is enforced before inserting.
+ * Successful changes are reported to DoctorStatisticsService.
+ */
+public class AppointmentService {
+    private final AppointmentDAO appointmentDAO;
+    private final DoctorAvailabilityService availability;
+    private final DailyCapacityService capacity;
+    private final DoctorStatisticsService statistics;
+
+    public AppointmentService() {
+        this(new AppointmentDAO(), DoctorAvailabilityService.getInstance(), DailyCapacityService.getInstance(),
+                DoctorStatisticsService.getInstance());
+    }
+
+    public AppointmentService(AppointmentDAO appointmentDAO, DoctorAvailabilityService availability,
+                              DailyCapacityService capacity, DoctorStatisticsService statistics) {
+        this.appointmentDAO = appointmentDAO;
+        this.availability = availability;
+        this.capacity = capacity;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Book an appointment if the doctor is scheduled and the slot is free
+     */
+    public BookingResult bookAppointment(Appointment appointment) {
+        int doctorId = appointment.getDoctorId();
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime time = appointment.getAppointmentTime();
+        if (!availability.tryReserve(doctorId, date, time)) {
+            return BookingResult.SLOT_TAKEN;
+        }
+        try {
+            if (!availability.isSlotFree(doctorId, date, time)) {
+                return BookingResult.SLOT_UNAVAILABLE;
+            }
+            try {
+                if (!capacity.tryAcquire(doctorId, date)) {
+                    return BookingResult.DAILY_LIMIT_REACHED;
+                }
+            } catch (IllegalStateException e) {
+                return BookingResult.FAILED;
+            }
+            try {
+                if (!appointmentDAO.createAppointment(appointment)) {
+                    capacity.release(doctorId, date);
+                    return BookingResult.FAILED;
+                }
+            } catch (SlotConflictException e) {
+                // Booked through another node; record it so later checks fail fast
+                capacity.release(doctorId, date);
+                availability.onAppointmentBooked(doctorId, date, time);
+                return BookingResult.SLOT_TAKEN;
+            }
+            availability.onAppointmentBooked(doctorId, date, time);
+            statistics.onAppointmentCreated(doctorId, appointment.getStatus());
+            return BookingResult.BOOKED;
+        } finally {
+            availability.releaseReservation(doctorId, date, time);
+        }
+    }
+
+    /**
+     * Bulk insert appointments (e.g. the nightly referral import) and update the availability index.
+     * Imports skip the availability and daily capacity checks; conflicting slots come back as row failures.
+     */
+    public BatchResult importAppointments(List<Appointment> appointments) {
+        BatchResult result = appointmentDAO.createAppointments(appointments);
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            if (result.isSuccess(i)) {
+                statistics.onAppointmentCreated(appointment.getDoctorId(), appointment.getStatus());
+            }
+            if (result.isSuccess(i) && !"cancelled".equals(appointment.getStatus())) {
+                availability.onAppointmentBooked(appointment.getDoctorId(),
+                        appointment.getAppointmentDate(), appointment.getAppointmentTime());
+                capacity.onAppointmentAdded(appointment.getDoctorId(), appointment.getAppointmentDate());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cancel an appointment and release its slot.
+     * Only the call whose update changed the status releases it, so concurrent cancels release once.
+     */
+    public boolean cancelAppointment(int appointmentId) {
+        Appointment appointment = appointmentDAO.getAppointmentById(appointmentId);
+        if (appointment == null || !appointmentDAO.cancelAppointment(appointmentId)) {
+            return false;
+        }
+        statistics.onAppointmentCancelled(appointment.getDoctorId());
+        release(appointment);
+        return true;
+    }
+
+    /**
+     * Delete an appointment and release its slot. Its bills are deleted with it and
+     * leave the patient's ledger and the doctor's revenue.
+     */
+    public boolean deleteAppointment(int appointmentId) {
+        DeletedAppointment deleted = appointmentDAO.deleteAppointment(appointmentId);
+        if (deleted == null) {
+            return false;
+        }
+        // Read under the delete's row lock, so a concurrent cancel is either reflected here or failed
+        Appointment appointment = deleted.getAppointment();
+        statistics.onAppointmentDeleted(appointment.getDoctorId(), appointment.getStatus());
+        for (Billing bill : deleted.getBills()) {
+            statistics.onBillingStatusChanged(bill.getDoctorId(), bill.getAmount(), bill.getPaymentStatus(), null);
+        }
+        release(appointment);
+        return true;
+    }
+
+    private void release(Appointment appointment) {
+        if (!"cancelled".equals(appointment.getStatus())) {
+            availability.onAppointmentReleased(appointment.getDoctorId(),
+                    appointment.getAppointmentDate(), appointment.getAppointmentTime());
+            capacity.release(appointment.getDoctorId(), appointment.getAppointmentDate());
+        }
+    }
+}
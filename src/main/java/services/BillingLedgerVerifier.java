@@ -0,0 +1,193 @@
+package services;
+
+import database.DatabaseConnection;
+import database.PatientBillingLedgerDAO;
+import models.PatientBillingLedger;
+import utils.IntObjectMap;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * BillingLedgerVerifier - Checks patient_billing_ledger against totals recomputed from billing.
+ * Patient ids are split into ranges of ledger.verify.chunkSize that are compared on
+ * ledger.verify.threads threads. Drift is expected only from bills changed outside BillingDAO
+ * and AppointmentDAO.deleteAppointment (manual SQL, bulk loads).
+ * A patient whose bills change during the run can look drifted, so every mismatch is
+ * compared once more on its own before it is reported.
+ */
+public class BillingLedgerVerifier {
+    private static final Logger LOGGER = Logger.getLogger(BillingLedgerVerifier.class.getName());
+
+    private final PatientBillingLedgerDAO ledgerDAO;
+    private final int threads;
+    private final int chunkSize;
+
+    public BillingLedgerVerifier() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = 10_000;
+        try {
+            DatabaseConnection db = DatabaseConnection.getInstance();
+            threads = Integer.parseInt(db.getProperty("ledger.verify.threads", String.valueOf(threads)));
+            chunkSize = Integer.parseInt(db.getProperty("ledger.verify.chunkSize", String.valueOf(chunkSize)));
+        } catch (SQLException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Using default ledger verification settings", e);
+        }
+        this.ledgerDAO = new PatientBillingLedgerDAO();
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public BillingLedgerVerifier(PatientBillingLedgerDAO ledgerDAO, int threads, int chunkSize) {
+        this.ledgerDAO = ledgerDAO;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Compare every patient's ledger with the billing table
+     * @param repair overwrite drifted ledgers with the recomputed totals
+     */
+    public Result verify(boolean repair) {
+        long started = System.nanoTime();
+        int[] range = ledgerDAO.getPatientIdRange();
+        if (range == null) {
+            return new Result(Collections.emptyList(), 0, 0);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "ledger-verify-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<List<Drift>>> chunks = new ArrayList<>();
+        try {
+            for (long from = range[0]; from <= range[1]; from += chunkSize) {
+                int fromId = (int) from;
+                int toId = (int) Math.min(from + chunkSize, (long) range[1] + 1);
+                chunks.add(pool.submit(() -> compare(fromId, toId)));
+            }
+            List<Drift> suspects = new ArrayList<>();
+            int failedChunks = 0;
+            for (Future<List<Drift>> chunk : chunks) {
+                try {
+                    suspects.addAll(chunk.get());
+                } catch (ExecutionException e) {
+                    failedChunks++;
+                    LOGGER.log(Level.SEVERE, "Ledger verification chunk failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Ledger verification interrupted", e);
+                }
+            }
+            List<Drift> drifts = confirm(suspects, repair);
+            LOGGER.info("Verified billing ledgers in " + chunks.size() + " chunks in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms: " + drifts.size()
+                    + " drifted" + (repair ? " and repaired" : "") + ", " + failedChunks + " chunks failed");
+            return new Result(drifts, chunks.size(), failedChunks);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Drift> confirm(List<Drift> suspects, boolean repair) {
+        List<Drift> drifts = new ArrayList<>();
+        for (Drift suspect : suspects) {
+            List<Drift> recheck;
+            try {
+                recheck = compare(suspect.getPatientId(), suspect.getPatientId() + 1);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error rechecking billing ledger of patient: " + suspect.getPatientId(), e);
+                recheck = Collections.singletonList(suspect);
+            }
+            for (Drift drift : recheck) {
+                LOGGER.warning("Billing ledger drift: " + drift);
+                if (repair) {
+                    ledgerDAO.rebuild(drift.getPatientId());
+                }
+                drifts.add(drift);
+            }
+        }
+        return drifts;
+    }
+
+    /**
+     * Compare the stored and recomputed ledgers of patients with fromId <= id < toId
+     */
+    private List<Drift> compare(int fromId, int toId) throws SQLException {
+        IntObjectMap<PatientBillingLedger> stored = ledgerDAO.getLedgers(fromId, toId);
+        IntObjectMap<PatientBillingLedger> computed = ledgerDAO.computeLedgers(fromId, toId);
+        List<Drift> drifts = new ArrayList<>();
+        computed.forEach((patientId, expected) -> {
+            PatientBillingLedger actual = stored.getOrDefault(patientId, new PatientBillingLedger(patientId));
+            if (!expected.sameTotals(actual)) {
+                drifts.add(new Drift(expected, actual));
+            }
+        });
+        // Ledgers of patients who no longer have any bills
+        stored.forEach((patientId, actual) -> {
+            PatientBillingLedger expected = new PatientBillingLedger(patientId);
+            if (!computed.containsKey(patientId) && !expected.sameTotals(actual)) {
+                drifts.add(new Drift(expected, actual));
+            }
+        });
+        return drifts;
+    }
+
+    /**
+     * A patient whose stored ledger differs from the totals of their bills
+     */
+    public static class Drift {
+        private final PatientBillingLedger expected;
+        private final PatientBillingLedger actual;
+
+        Drift(PatientBillingLedger expected, PatientBillingLedger actual) {
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public int getPatientId() { return expected.getPatientId(); }
+        public PatientBillingLedger getExpected() { return expected; }
+        public PatientBillingLedger getActual() { return actual; }
+
+        @Override
+        public String toString() {
+            return "stored {" + actual + "} but billing has {" + expected + "}";
+        }
+    }
+
+    /**
+     * Outcome of a verification run
+     */
+    public static class Result {
+        private final List<Drift> drifts;
+        private final int chunks;
+        private final int failedChunks;
+
+        Result(List<Drift> drifts, int chunks, int failedChunks) {
+            this.drifts = drifts;
+            this.chunks = chunks;
+            this.failedChunks = failedChunks;
+        }
+
+        public List<Drift> getDrifts() { return drifts; }
+        public int getChunks() { return chunks; }
+        public int getFailedChunks() { return failedChunks; }
+
+        /**
+         * True if every chunk was checked and no ledger drifted
+         */
+        public boolean isClean() {
+            return drifts.isEmpty() && failedChunks == 0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package services;
+
+import database.BillingDAO;
+import database.PatientBillingLedgerDAO;
+import models.Billing;
+import models.PatientBillingLedger;
+import models.PaymentIdempotencyKey;
+
+/**
+ * BillingService - Bills and payment status changes.
+ * Each change is applied only if the bill still has the status it was read with;
+ * the patient's billing ledger is updated in the same transaction and the doctor's
+ * revenue statistics follow the change. Payments posted with an idempotency key are
+ * applied at most once and repeats get the first outcome.
+ */
+public class BillingService {
+    private final BillingDAO billingDAO;
+    private final PatientBillingLedgerDAO ledgerDAO;
+    private final DoctorStatisticsService statistics;
+    private final PaymentKeyStore paymentKeys;
+
+    public BillingService() {
+        this(new BillingDAO(), new PatientBillingLedgerDAO(), DoctorStatisticsService.getInstance(),
+                PaymentKeyStore.getInstance());
+    }
+
+    public BillingService(BillingDAO billingDAO, PatientBillingLedgerDAO ledgerDAO, DoctorStatisticsService statistics,
+                          PaymentKeyStore paymentKeys) {
+        this.billingDAO = billingDAO;
+        this.ledgerDAO = ledgerDAO;
+        this.statistics = statistics;
+        this.paymentKeys = paymentKeys;
+    }
+
+    /**
+     * Raise a bill; its status defaults to pending
+     */
+    public boolean createBill(Billing bill) {
+        if (bill.getPaymentStatus() == null) {
+            bill.setPaymentStatus("pending");
+        }
+        if (!billingDAO.createBill(bill)) {
+            return false;
+        }
+        statistics.onBillingStatusChanged(bill.getDoctorId(), bill.getAmount(), null, bill.getPaymentStatus());
+        return true;
+    }
+
+    /**
+     * Set a bill's payment status (pending, completed or cancelled)
+     * @return false if the bill does not exist, already has that status or was changed concurrently
+     */
+    public boolean updatePaymentStatus(int billId, String newStatus) {
+        Billing bill = billingDAO.getBillById(billId);
+        if (bill == null || newStatus.equals(bill.getPaymentStatus())) {
+            return false;
+        }
+        if (!billingDAO.updatePaymentStatus(bill, newStatus)) {
+            return false;
+        }
+        statistics.onBillingStatusChanged(bill.getDoctorId(), bill.getAmount(), bill.getPaymentStatus(), newStatus);
+        return true;
+    }
+
+    /**
+     * Set a bill's payment status on behalf of a payment callback that may be retried.
+     * A key seen before returns its first outcome without reading or changing the bill;
+     * reusing a key for a different bill or status returns KEY_REUSED.
+     */
+    public PaymentResult postPayment(String idempotencyKey, int billId, String newStatus) {
+        PaymentIdempotencyKey known = paymentKeys.find(idempotencyKey);
+        if (known != null) {
+            return replay(known, billId, newStatus);
+        }
+        Billing bill;
+        try {
+            bill = billingDAO.findBillById(billId);
+        } catch (IllegalStateException e) {
+            // Retryable; a missing bill is final for the gateway
+            return PaymentResult.FAILED;
+        }
+        if (bill == null) {
+            return PaymentResult.BILL_NOT_FOUND;
+        }
+        if (newStatus.equals(bill.getPaymentStatus())) {
+            return alreadyApplied(idempotencyKey, billId, newStatus);
+        }
+        PaymentIdempotencyKey applied = new PaymentIdempotencyKey(idempotencyKey, billId, newStatus,
+                PaymentResult.APPLIED.name());
+        if (billingDAO.updatePaymentStatus(bill, newStatus, applied)) {
+            paymentKeys.remember(applied);
+            statistics.onBillingStatusChanged(bill.getDoctorId(), bill.getAmount(), bill.getPaymentStatus(), newStatus);
+            return PaymentResult.APPLIED;
+        }
+        // A concurrent repeat of this key committed first, the bill changed meanwhile, or the update failed
+        known = paymentKeys.find(idempotencyKey);
+        if (known != null) {
+            return replay(known, billId, newStatus);
+        }
+        Billing current;
+        try {
+            current = billingDAO.findBillById(billId);
+        } catch (IllegalStateException e) {
+            return PaymentResult.FAILED;
+        }
+        if (current == null) {
+            return PaymentResult.BILL_NOT_FOUND;
+        }
+        if (bill.getPaymentStatus().equals(current.getPaymentStatus())) {
+            return PaymentResult.FAILED;
+        }
+        return newStatus.equals(current.getPaymentStatus())
+                ? alreadyApplied(idempotencyKey, billId, newStatus) : PaymentResult.CONFLICT;
+    }
+
+    private PaymentResult alreadyApplied(String idempotencyKey, int billId, String newStatus) {
+        PaymentIdempotencyKey recorded = paymentKeys.save(
+                new PaymentIdempotencyKey(idempotencyKey, billId, newStatus, PaymentResult.ALREADY_APPLIED.name()));
+        // A concurrent request with the same key may have recorded its own outcome first
+        return recorded != null ? replay(recorded, billId, newStatus) : PaymentResult.ALREADY_APPLIED;
+    }
+
+    private static PaymentResult replay(PaymentIdempotencyKey known, int billId, String newStatus) {
+        return known.matches(billId, newStatus) ? PaymentResult.valueOf(known.getResult()) : PaymentResult.KEY_REUSED;
+    }
+
+    /**
+     * Get a patient's billing totals and balance owed, or null if the lookup failed
+     */
+    public PatientBillingLedger getLedger(int patientId) {
+        return ledgerDAO.getLedger(patientId);
+    }
+}
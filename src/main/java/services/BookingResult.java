@@ -0,0 +1,12 @@
+package services;
+
+/**
+ * BookingResult - Outcome of an appointment booking attempt
+ */
+public enum BookingResult {
+    BOOKED,
+    SLOT_UNAVAILABLE,
+    SLOT_TAKEN,
+    DAILY_LIMIT_REACHED,
+    FAILED
+}
@@ -0,0 +1,134 @@
+package services;
+
+import database.AppointmentDAO;
+import database.SystemSettingsDAO;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * DailyCapacityService - Enforces max_appointments_per_day per doctor.
+ * Keeps one atomic counter per (doctor, date), seeded from the database on first use,
+ * so the capacity check on the booking path is a compare-and-set rather than a COUNT(*).
+ */
+public class DailyCapacityService {
+    private static final Logger LOGGER = Logger.getLogger(DailyCapacityService.class.getName());
+    private static final int DEFAULT_MAX_PER_DAY = 10;
+    private static volatile DailyCapacityService instance;
+
+    private final AppointmentDAO appointmentDAO;
+    private final int maxPerDay;
+    // Key packs doctor id in the high 32 bits and the epoch day in the low 32 bits
+    private final ConcurrentHashMap<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private volatile long lastPrunedDay;
+
+    private DailyCapacityService() {
+        this.appointmentDAO = new AppointmentDAO();
+        this.maxPerDay = loadMaxPerDay();
+    }
+
+    public static DailyCapacityService getInstance() {
+        if (instance == null) {
+            synchronized (DailyCapacityService.class) {
+                if (instance == null) {
+                    instance = new DailyCapacityService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public int getMaxPerDay() {
+        return maxPerDay;
+    }
+
+    /**
+     * Take one unit of the doctor's capacity for the day.
+     * @return false if the doctor is already fully booked that day
+     * @throws IllegalStateException if the day's bookings could not be counted
+     */
+    public boolean tryAcquire(int doctorId, LocalDate date) {
+        AtomicInteger counter = counter(doctorId, date);
+        while (true) {
+            int current = counter.get();
+            if (current >= maxPerDay) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back capacity after a failed booking, a cancellation or a deletion
+     */
+    public void release(int doctorId, LocalDate date) {
+        AtomicInteger counter = counters.get(key(doctorId, date));
+        if (counter != null) {
+            counter.updateAndGet(current -> current > 0 ? current - 1 : 0);
+        }
+    }
+
+    /**
+     * Count an appointment that was inserted without tryAcquire, such as a bulk import.
+     * Counters not loaded yet pick the row up from the database when they are seeded.
+     */
+    public void onAppointmentAdded(int doctorId, LocalDate date) {
+        AtomicInteger counter = counters.get(key(doctorId, date));
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    public int getBookedCount(int doctorId, LocalDate date) {
+        return counter(doctorId, date).get();
+    }
+
+    // Seeded outside the map so the query does not block other counters; a failed count is not cached
+    private AtomicInteger counter(int doctorId, LocalDate date) {
+        pruneIfNewDay();
+        long key = key(doctorId, date);
+        AtomicInteger counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        int booked = appointmentDAO.countActiveAppointments(doctorId, date);
+        if (booked < 0) {
+            throw new IllegalStateException("Could not count appointments of doctor " + doctorId + " on " + date);
+        }
+        AtomicInteger loaded = new AtomicInteger(booked);
+        counter = counters.putIfAbsent(key, loaded);
+        return counter != null ? counter : loaded;
+    }
+
+    // Counters for past days can never be acquired again
+    private void pruneIfNewDay() {
+        long today = LocalDate.now().toEpochDay();
+        if (lastPrunedDay != today) {
+            lastPrunedDay = today;
+            counters.keySet().removeIf(k -> (k & 0xFFFFFFFFL) < today);
+        }
+    }
+
+    private static long key(int doctorId, LocalDate date) {
+        return ((long) doctorId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private int loadMaxPerDay() {
+        String value = new SystemSettingsDAO().getAllSettings().get("max_appointments_per_day");
+        if (value != null) {
+            try {
+                int max = Integer.parseInt(value.trim());
+                if (max > 0) {
+                    return max;
+                }
+            } catch (NumberFormatException e) {
+                // fall through to default
+            }
+            LOGGER.warning("Invalid max_appointments_per_day '" + value + "', using " + DEFAULT_MAX_PER_DAY);
+        }
+        return DEFAULT_MAX_PER_DAY;
+    }
+}
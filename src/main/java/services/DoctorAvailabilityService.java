@@ -0,0 +1,289 @@
+package services;
+
+import database.AppointmentDAO;
+import database.DoctorScheduleDAO;
+import database.SystemSettingsDAO;
+import models.Appointment;
+import models.DoctorSchedule;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DoctorAvailabilityService - In-memory index of doctor availability.
+ * Each doctor's weekly schedule and booked appointments are kept as per-day bitsets
+ * with one bit per slot, so availability checks never touch the database.
+ * A doctor's index is loaded on first use and kept up to date by AppointmentService;
+ * booked days in the past are dropped once a day.
+ * Slots being booked are also reserved here so concurrent requests for one slot fail fast.
+ */
+public class DoctorAvailabilityService {
+    private static final Logger LOGGER = Logger.getLogger(DoctorAvailabilityService.class.getName());
+    private static final int DEFAULT_SLOT_MINUTES = 30;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int CHANGE_STRIPES = 64;
+    private static volatile DoctorAvailabilityService instance;
+
+    private final DoctorScheduleDAO scheduleDAO;
+    private final AppointmentDAO appointmentDAO;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int words;
+    private final ConcurrentHashMap<Integer, DoctorIndex> doctors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Boolean> reservations = new ConcurrentHashMap<>();
+    // Counts changes per stripe of doctor ids, so a load can tell that it may have missed one
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+    private volatile long lastPrunedDay;
+
+    private DoctorAvailabilityService() {
+        this.scheduleDAO = new DoctorScheduleDAO();
+        this.appointmentDAO = new AppointmentDAO();
+        this.slotMinutes = loadSlotMinutes();
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        this.words = (slotsPerDay + 63) / 64;
+    }
+
+    public static DoctorAvailabilityService getInstance() {
+        if (instance == null) {
+            synchronized (DoctorAvailabilityService.class) {
+                if (instance == null) {
+                    instance = new DoctorAvailabilityService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Check whether the slot containing the given time is within the doctor's schedule and not booked
+     */
+    public boolean isSlotFree(int doctorId, LocalDate date, LocalTime time) {
+        if (LocalDateTime.of(date, time).isBefore(LocalDateTime.now())) {
+            return false;
+        }
+        return index(doctorId).isFree(date, slotOf(time));
+    }
+
+    /**
+     * Get the start times of all free slots for a doctor between two dates (inclusive)
+     */
+    public List<LocalDateTime> getFreeSlots(int doctorId, LocalDate from, LocalDate to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        LocalDate end = to.isAfter(start.plusDays(MAX_RANGE_DAYS)) ? start.plusDays(MAX_RANGE_DAYS) : to;
+        List<LocalDateTime> slots = new ArrayList<>();
+        if (end.isBefore(start)) {
+            return slots;
+        }
+        index(doctorId).collectFree(start, end, now, slots);
+        return slots;
+    }
+
+    /**
+     * Mark a slot as booked. Has no effect if the doctor's index has not been loaded yet.
+     */
+    public void onAppointmentBooked(int doctorId, LocalDate date, LocalTime time) {
+        int slot = slotOf(time);
+        changed(doctorId);
+        doctors.computeIfPresent(doctorId, (id, index) -> {
+            index.setBooked(date, slot, true);
+            return index;
+        });
+    }
+
+    /**
+     * Free a slot after its appointment was cancelled or deleted
+     */
+    public void onAppointmentReleased(int doctorId, LocalDate date, LocalTime time) {
+        int slot = slotOf(time);
+        changed(doctorId);
+        doctors.computeIfPresent(doctorId, (id, index) -> {
+            index.setBooked(date, slot, false);
+            return index;
+        });
+    }
+
+    /**
+     * Reserve a slot for the duration of a booking attempt.
+     * @return false if another thread is already booking the same slot
+     */
+    public boolean tryReserve(int doctorId, LocalDate date, LocalTime time) {
+        return reservations.putIfAbsent(slotKey(doctorId, date, time), Boolean.TRUE) == null;
+    }
+
+    public void releaseReservation(int doctorId, LocalDate date, LocalTime time) {
+        reservations.remove(slotKey(doctorId, date, time));
+    }
+
+    /**
+     * Drop a doctor's index so it is rebuilt from the database on next use
+     */
+    public void onScheduleChanged(int doctorId) {
+        changed(doctorId);
+        doctors.remove(doctorId);
+    }
+
+    // doctor id in the high 32 bits, then 21 bits of epoch day and 11 bits of slot number
+    private long slotKey(int doctorId, LocalDate date, LocalTime time) {
+        return ((long) doctorId << 32) | ((date.toEpochDay() & 0x1FFFFFL) << 11) | slotOf(time);
+    }
+
+    private int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    /**
+     * Get a doctor's index, loading it outside the map so a slow query blocks no other doctor.
+     * A change reported while loading may be missing from the result, so it is then used once
+     * and not cached; the next call loads again.
+     */
+    private DoctorIndex index(int doctorId) {
+        pruneIfNewDay();
+        DoctorIndex index = doctors.get(doctorId);
+        if (index != null) {
+            return index;
+        }
+        int stripe = doctorId & (CHANGE_STRIPES - 1);
+        long before = changes.get(stripe);
+        DoctorIndex loaded = load(doctorId);
+        index = doctors.putIfAbsent(doctorId, loaded);
+        if (index != null) {
+            return index;
+        }
+        // Checked after publishing: a later change finds the index in the map and is applied to it
+        if (changes.get(stripe) != before) {
+            doctors.remove(doctorId, loaded);
+        }
+        return loaded;
+    }
+
+    // Counted before the index is updated, so a concurrent load sees it
+    private void changed(int doctorId) {
+        changes.incrementAndGet(doctorId & (CHANGE_STRIPES - 1));
+    }
+
+    // Booked slots of past days can never be checked again
+    private void pruneIfNewDay() {
+        long today = LocalDate.now().toEpochDay();
+        if (lastPrunedDay != today) {
+            lastPrunedDay = today;
+            for (DoctorIndex index : doctors.values()) {
+                index.pruneBefore((int) today);
+            }
+        }
+    }
+
+    private DoctorIndex load(int doctorId) {
+        DoctorIndex index = new DoctorIndex();
+        for (DoctorSchedule schedule : scheduleDAO.getScheduleByDoctor(doctorId)) {
+            try {
+                DayOfWeek day = DayOfWeek.valueOf(schedule.getDayOfWeek().toUpperCase());
+                index.addWindow(day, schedule.getStartTime(), schedule.getEndTime());
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Skipping invalid schedule for doctor " + doctorId, e);
+            }
+        }
+        for (Appointment appointment : appointmentDAO.getUpcomingAppointmentsByDoctor(doctorId, LocalDate.now())) {
+            index.setBooked(appointment.getAppointmentDate(), slotOf(appointment.getAppointmentTime()), true);
+        }
+        return index;
+    }
+
+    private int loadSlotMinutes() {
+        Map<String, String> settings = new SystemSettingsDAO().getAllSettings();
+        String value = settings.get("appointment_slot_minutes");
+        if (value != null) {
+            try {
+                int minutes = Integer.parseInt(value.trim());
+                if (minutes > 0 && MINUTES_PER_DAY % minutes == 0) {
+                    return minutes;
+                }
+            } catch (NumberFormatException e) {
+                // fall through to default
+            }
+            LOGGER.warning("Invalid appointment_slot_minutes '" + value + "', using " + DEFAULT_SLOT_MINUTES);
+        }
+        return DEFAULT_SLOT_MINUTES;
+    }
+
+    /**
+     * Availability of a single doctor: a weekly template of scheduled slots plus booked slots per day.
+     */
+    private final class DoctorIndex {
+        private final long[][] weekly = new long[7][words];
+        private final Map<Integer, long[]> booked = new HashMap<>();
+
+        synchronized void addWindow(DayOfWeek day, LocalTime start, LocalTime end) {
+            long[] template = weekly[day.getValue() - 1];
+            int startMinute = start.getHour() * 60 + start.getMinute();
+            int endMinute = end.getHour() * 60 + end.getMinute();
+            // Only whole slots that fit inside the window are bookable
+            for (int slot = (startMinute + slotMinutes - 1) / slotMinutes;
+                 (slot + 1) * slotMinutes <= endMinute && slot < slotsPerDay; slot++) {
+                template[slot >>> 6] |= 1L << (slot & 63);
+            }
+        }
+
+        synchronized void setBooked(LocalDate date, int slot, boolean isBooked) {
+            int day = (int) date.toEpochDay();
+            long[] bits = booked.get(day);
+            if (bits == null) {
+                if (!isBooked) {
+                    return;
+                }
+                bits = new long[words];
+                booked.put(day, bits);
+            }
+            if (isBooked) {
+                bits[slot >>> 6] |= 1L << (slot & 63);
+            } else {
+                bits[slot >>> 6] &= ~(1L << (slot & 63));
+            }
+        }
+
+        synchronized void pruneBefore(int day) {
+            booked.keySet().removeIf(d -> d < day);
+        }
+
+        synchronized boolean isFree(LocalDate date, int slot) {
+            long mask = 1L << (slot & 63);
+            if ((weekly[date.getDayOfWeek().getValue() - 1][slot >>> 6] & mask) == 0) {
+                return false;
+            }
+            long[] bits = booked.get((int) date.toEpochDay());
+            return bits == null || (bits[slot >>> 6] & mask) == 0;
+        }
+
+        synchronized void collectFree(LocalDate from, LocalDate to, LocalDateTime notBefore, List<LocalDateTime> out) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                long[] template = weekly[date.getDayOfWeek().getValue() - 1];
+                long[] bits = booked.get((int) date.toEpochDay());
+                for (int w = 0; w < words; w++) {
+                    long free = template[w] & (bits == null ? -1L : ~bits[w]);
+                    while (free != 0) {
+                        int slot = (w << 6) + Long.numberOfTrailingZeros(free);
+                        free &= free - 1;
+                        LocalDateTime start = LocalDateTime.of(date, LocalTime.ofSecondOfDay(slot * slotMinutes * 60L));
+                        if (!start.isBefore(notBefore)) {
+                            out.add(start);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package services;
+
+import database.DatabaseConnection;
+import database.DoctorDAO;
+import database.DoctorReviewDAO;
+import models.Doctor;
+import models.DoctorRating;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DoctorRatingService - In-memory star rating aggregates and per-specialization leaderboards.
+ * Each doctor has a histogram of 1-5 star ratings, built from doctor_reviews in one grouped query
+ * when the service starts and updated by ReviewService on every new review.
+ * Each specialization keeps its rated doctors in a concurrent skip list ordered best first,
+ * so the top K are the first K entries and are served without SQL.
+ * Doctors need ratings.leaderboard.minRatings ratings to be ranked; deleted doctors are dropped
+ * through onDoctorDeleted.
+ */
+public class DoctorRatingService {
+    private static final Logger LOGGER = Logger.getLogger(DoctorRatingService.class.getName());
+    // Best average first; more ratings win ties, then the lower id so every doctor has one position
+    private static final Comparator<DoctorRating> BEST_FIRST = Comparator
+            .comparingDouble(DoctorRating::getAverageRating).reversed()
+            .thenComparing(Comparator.comparingInt(DoctorRating::getRatingCount).reversed())
+            .thenComparingInt(DoctorRating::getDoctorId);
+    private static volatile DoctorRatingService instance;
+
+    private final DoctorDAO doctorDAO;
+    private final int minRatings;
+    private final ConcurrentHashMap<Integer, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<DoctorRating>> leaderboards = new ConcurrentHashMap<>();
+
+    private DoctorRatingService(DoctorDAO doctorDAO, DoctorReviewDAO reviewDAO, int minRatings) {
+        this.doctorDAO = doctorDAO;
+        this.minRatings = minRatings;
+        long started = System.nanoTime();
+        for (Doctor doctor : doctorDAO.getAllDoctors()) {
+            aggregates.put(doctor.getId(), new Aggregate(doctor.getId(), doctor.getSpecialization()));
+        }
+        reviewDAO.getRatingHistograms().forEach((doctorId, histogram) ->
+                aggregates.computeIfAbsent(doctorId, this::loadAggregate).addAll(histogram));
+        LOGGER.info("Loaded ratings of " + aggregates.size() + " doctors in "
+                + (System.nanoTime() - started) / 1_000_000L + "ms");
+    }
+
+    public static DoctorRatingService getInstance() {
+        if (instance == null) {
+            synchronized (DoctorRatingService.class) {
+                if (instance == null) {
+                    int minRatings = 3;
+                    try {
+                        minRatings = Integer.parseInt(DatabaseConnection.getInstance()
+                                .getProperty("ratings.leaderboard.minRatings", "3"));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default leaderboard minimum of " + minRatings + " ratings", e);
+                    }
+                    instance = new DoctorRatingService(new DoctorDAO(), new DoctorReviewDAO(), Math.max(1, minRatings));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Count a new rating. Reviews without a rating are ignored.
+     */
+    public void onReviewAdded(int doctorId, Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            return;
+        }
+        aggregates.computeIfAbsent(doctorId, this::loadAggregate).add(rating);
+    }
+
+    /**
+     * Forget a deleted doctor's ratings and take the doctor off its leaderboard
+     */
+    public void onDoctorDeleted(int doctorId) {
+        Aggregate aggregate = aggregates.remove(doctorId);
+        if (aggregate != null) {
+            aggregate.unpublish();
+        }
+    }
+
+    /**
+     * Get the current rating snapshot of a doctor, or null if the doctor is unknown
+     */
+    public DoctorRating getRating(int doctorId) {
+        Aggregate aggregate = aggregates.get(doctorId);
+        return aggregate != null ? aggregate.snapshot : null;
+    }
+
+    /**
+     * Get the best rated doctors of a specialization (case-insensitive), best first
+     */
+    public List<DoctorRating> getTopRated(String specialization, int limit) {
+        List<DoctorRating> top = new ArrayList<>(Math.max(0, Math.min(limit, 100)));
+        ConcurrentSkipListSet<DoctorRating> leaderboard = specialization == null ? null
+                : leaderboards.get(key(specialization));
+        if (leaderboard != null) {
+            Iterator<DoctorRating> bestFirst = leaderboard.iterator();
+            while (top.size() < limit && bestFirst.hasNext()) {
+                top.add(bestFirst.next());
+            }
+        }
+        return top;
+    }
+
+    // Doctors created after startup are looked up on their first rating
+    private Aggregate loadAggregate(int doctorId) {
+        Doctor doctor = doctorDAO.getDoctorById(doctorId);
+        return new Aggregate(doctorId, doctor != null ? doctor.getSpecialization() : null);
+    }
+
+    private static String key(String specialization) {
+        return specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rating histogram of one doctor. Updates are serialized per doctor so the doctor's
+     * leaderboard entry is always replaced by the snapshot that follows it.
+     */
+    private final class Aggregate {
+        private final String specialization;
+        private final int[] histogram = new int[5];
+        private volatile DoctorRating snapshot;
+        // Set once the doctor is deleted, so a rating counted concurrently does not rank it again
+        private boolean removed;
+
+        Aggregate(int doctorId, String specialization) {
+            this.specialization = specialization == null || specialization.trim().isEmpty() ? null : specialization.trim();
+            this.snapshot = new DoctorRating(doctorId, this.specialization, histogram);
+        }
+
+        synchronized void add(int stars) {
+            histogram[stars - 1]++;
+            publish();
+        }
+
+        synchronized void addAll(int[] counts) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += counts[i];
+            }
+            publish();
+        }
+
+        synchronized void unpublish() {
+            removed = true;
+            ConcurrentSkipListSet<DoctorRating> leaderboard =
+                    specialization != null ? leaderboards.get(key(specialization)) : null;
+            if (leaderboard != null) {
+                leaderboard.remove(snapshot);
+            }
+        }
+
+        private void publish() {
+            DoctorRating previous = snapshot;
+            DoctorRating next = new DoctorRating(previous.getDoctorId(), specialization, histogram);
+            if (specialization != null && !removed) {
+                ConcurrentSkipListSet<DoctorRating> leaderboard =
+                        leaderboards.computeIfAbsent(key(specialization), k -> new ConcurrentSkipListSet<>(BEST_FIRST));
+                if (previous.getRatingCount() >= minRatings) {
+                    leaderboard.remove(previous);
+                }
+                if (next.getRatingCount() >= minRatings) {
+                    leaderboard.add(next);
+                }
+            }
+            snapshot = next;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package services;
+
+import database.DatabaseConnection;
+import database.DoctorStatisticsDAO;
+import models.DoctorStatistics;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DoctorStatisticsService - Keeps the doctor_statistics table current.
+ * Appointment, review and billing changes are applied as deltas to the doctor's row,
+ * so dashboards read one row per doctor instead of aggregating the source tables.
+ * Changes made outside the services (bulk loads, manual SQL) and deltas lost to errors
+ * are repaired by a periodic reconciliation every stats.reconcile.intervalMinutes.
+ */
+public class DoctorStatisticsService {
+    private static final Logger LOGGER = Logger.getLogger(DoctorStatisticsService.class.getName());
+    private static final String COMPLETED = "completed";
+    private static volatile DoctorStatisticsService instance;
+
+    private final DoctorStatisticsDAO statisticsDAO;
+    private final ScheduledExecutorService reconciler;
+
+    private DoctorStatisticsService(long reconcileMinutes) {
+        this.statisticsDAO = new DoctorStatisticsDAO();
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "doctor-stats-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        if (reconcileMinutes > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcileAll, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public static DoctorStatisticsService getInstance() {
+        if (instance == null) {
+            synchronized (DoctorStatisticsService.class) {
+                if (instance == null) {
+                    long reconcileMinutes = 60;
+                    try {
+                        reconcileMinutes = Long.parseLong(DatabaseConnection.getInstance()
+                                .getProperty("stats.reconcile.intervalMinutes", "60"));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default statistics reconciliation interval", e);
+                    }
+                    instance = new DoctorStatisticsService(reconcileMinutes);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Count a newly inserted appointment, which may already be cancelled (e.g. in an import)
+     */
+    public void onAppointmentCreated(int doctorId, String status) {
+        statisticsDAO.addDeltas(doctorId, 1, "cancelled".equals(status) ? 1 : 0, 0, 0, 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * Count an appointment that changed from an active status to cancelled
+     */
+    public void onAppointmentCancelled(int doctorId) {
+        statisticsDAO.addDeltas(doctorId, 0, 1, 0, 0, 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * Remove a deleted appointment from the totals; status is the one it had before deletion
+     */
+    public void onAppointmentDeleted(int doctorId, String status) {
+        statisticsDAO.addDeltas(doctorId, -1, "cancelled".equals(status) ? -1 : 0, 0, 0, 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * Count a new review; rating is null for a review without stars
+     */
+    public void onReviewAdded(int doctorId, Integer rating) {
+        statisticsDAO.addDeltas(doctorId, 0, 0, 1, rating != null ? 1 : 0, rating != null ? rating : 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * Move a bill's amount into or out of the doctor's revenue when it becomes or stops being completed
+     */
+    public void onBillingStatusChanged(int doctorId, BigDecimal amount, String oldStatus, String newStatus) {
+        boolean wasCompleted = COMPLETED.equals(oldStatus);
+        boolean isCompleted = COMPLETED.equals(newStatus);
+        if (wasCompleted != isCompleted) {
+            statisticsDAO.addDeltas(doctorId, 0, 0, 0, 0, 0, isCompleted ? amount : amount.negate());
+        }
+    }
+
+    public DoctorStatistics getStatistics(int doctorId) {
+        return statisticsDAO.getStatistics(doctorId);
+    }
+
+    public List<DoctorStatistics> getAllStatistics() {
+        return statisticsDAO.getAllStatistics();
+    }
+
+    /**
+     * Recompute every doctor's row from the source tables, one doctor per statement.
+     * A delta applied while its doctor is being recomputed may be counted twice or not at all;
+     * the next run corrects it.
+     * @return the number of doctors reconciled
+     */
+    public int reconcileAll() {
+        long started = System.nanoTime();
+        int reconciled = 0;
+        try {
+            for (int doctorId : statisticsDAO.getDoctorIds()) {
+                if (statisticsDAO.reconcile(doctorId)) {
+                    reconciled++;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive
+            LOGGER.log(Level.SEVERE, "Doctor statistics reconciliation failed", e);
+        }
+        LOGGER.info("Reconciled statistics of " + reconciled + " doctors in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms");
+        return reconciled;
+    }
+
+    public void shutdown() {
+        reconciler.shutdownNow();
+    }
+}
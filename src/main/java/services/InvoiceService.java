@@ -0,0 +1,156 @@
+package services;
+
+import database.AppointmentDAO;
+import database.BillingDAO;
+import database.DatabaseConnection;
+import database.DoctorDAO;
+import models.Appointment;
+import models.Billing;
+import models.Doctor;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InvoiceService - Bills completed appointments.
+ * Every invoice.intervalMinutes the completed appointments without a bill get a pending invoice
+ * for their doctor's consultation fee. Doctors are the unit of work, spread over invoice.threads
+ * workers; each pages through its doctor's appointments and inserts them with BillingDAO.createInvoices.
+ * The unique bill per appointment makes every run safe to repeat. Doctors without a fee are skipped.
+ */
+public class InvoiceService {
+    private static final Logger LOGGER = Logger.getLogger(InvoiceService.class.getName());
+    private static final int PAGE_SIZE = 10_000;
+    private static volatile InvoiceService instance;
+
+    private final DoctorDAO doctorDAO;
+    private final AppointmentDAO appointmentDAO;
+    private final BillingDAO billingDAO;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private InvoiceService(int threads, long intervalMinutes) {
+        this.doctorDAO = new DoctorDAO();
+        this.appointmentDAO = new AppointmentDAO();
+        this.billingDAO = new BillingDAO();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "invoice-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invoice-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        if (intervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::runOnce, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public static InvoiceService getInstance() {
+        if (instance == null) {
+            synchronized (InvoiceService.class) {
+                if (instance == null) {
+                    int threads = 4;
+                    long intervalMinutes = 15;
+                    try {
+                        DatabaseConnection db = DatabaseConnection.getInstance();
+                        threads = Integer.parseInt(db.getProperty("invoice.threads", String.valueOf(threads)));
+                        intervalMinutes = Long.parseLong(db.getProperty("invoice.intervalMinutes", String.valueOf(intervalMinutes)));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default invoice run settings", e);
+                    }
+                    instance = new InvoiceService(Math.max(1, threads), intervalMinutes);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Invoice all completed appointments that have no bill yet.
+     * Returns at once with 0 if another run is in progress.
+     * @return the number of invoices created
+     */
+    public int runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.info("Invoice run already in progress");
+            return 0;
+        }
+        long started = System.nanoTime();
+        int created = 0;
+        try {
+            List<Future<Integer>> partitions = new ArrayList<>();
+            for (Doctor doctor : doctorDAO.getAllDoctors()) {
+                if (doctor.getConsultationFee() > 0) {
+                    partitions.add(workers.submit(() -> invoiceDoctor(doctor)));
+                }
+            }
+            for (Future<Integer> partition : partitions) {
+                try {
+                    created += partition.get();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.SEVERE, "Invoice run failed for a doctor", e.getCause());
+                }
+            }
+            LOGGER.info("Created " + created + " invoices for " + partitions.size() + " doctors in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive
+            LOGGER.log(Level.SEVERE, "Invoice run failed", e);
+        } finally {
+            running.set(false);
+        }
+        return created;
+    }
+
+    private int invoiceDoctor(Doctor doctor) {
+        BigDecimal fee = BigDecimal.valueOf(doctor.getConsultationFee()).setScale(2, RoundingMode.HALF_UP);
+        int created = 0;
+        int afterId = 0;
+        while (true) {
+            List<Appointment> page = appointmentDAO.getUninvoicedCompletedAppointments(doctor.getId(), afterId, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Billing> invoices = new ArrayList<>(page.size());
+            for (Appointment appointment : page) {
+                invoices.add(new Billing(appointment.getId(), appointment.getPatientId(), doctor.getId(), fee,
+                        "Consultation on " + appointment.getAppointmentDate()));
+            }
+            int inserted = billingDAO.createInvoices(invoices);
+            if (inserted < 0) {
+                // The failed chunk and the rest of this doctor's appointments are picked up by the next run
+                break;
+            }
+            created += inserted;
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        return created;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+}
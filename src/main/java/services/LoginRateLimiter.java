@@ -0,0 +1,258 @@
+package services;
+
+import database.DatabaseConnection;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.ObjectName;
+
+/**
+ * LoginRateLimiter - Sliding-window throttle for login attempts, per username and per client address.
+ * Each key keeps one counter per time bucket; the window is the sum of the buckets it still covers.
+ * Callers check before running bcrypt so throttled attempts cost no CPU.
+ * Keys whose buckets have all expired are evicted by a background sweep.
+ * Counters are published over JMX as services:type=LoginRateLimiter.
+ */
+public class LoginRateLimiter implements LoginRateLimiterMXBean {
+    private static final Logger LOGGER = Logger.getLogger(LoginRateLimiter.class.getName());
+    private static volatile LoginRateLimiter instance;
+
+    /** Outcome of an attempt check */
+    public enum Decision {
+        ALLOWED, USERNAME_LIMITED, ADDRESS_LIMITED
+    }
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int maxPerUsername;
+    private final int maxPerAddress;
+    private final ConcurrentHashMap<String, SlidingWindow> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SlidingWindow> byAddress = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByAddress = new LongAdder();
+    private final AtomicLong evicted = new AtomicLong();
+    private final ScheduledExecutorService sweeper;
+
+    private LoginRateLimiter(long windowSeconds, int buckets, int maxPerUsername, int maxPerAddress) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1L, TimeUnit.SECONDS.toMillis(windowSeconds) / buckets);
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerAddress = maxPerAddress;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "login-rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictExpired, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+        registerMBean();
+    }
+
+    public static LoginRateLimiter getInstance() {
+        if (instance == null) {
+            synchronized (LoginRateLimiter.class) {
+                if (instance == null) {
+                    long windowSeconds = 900;
+                    int buckets = 15;
+                    int maxPerUsername = 10;
+                    int maxPerAddress = 100;
+                    try {
+                        DatabaseConnection db = DatabaseConnection.getInstance();
+                        windowSeconds = Long.parseLong(db.getProperty("auth.rateLimit.windowSeconds", "900"));
+                        buckets = Integer.parseInt(db.getProperty("auth.rateLimit.buckets", "15"));
+                        maxPerUsername = Integer.parseInt(db.getProperty("auth.rateLimit.maxPerUsername", "10"));
+                        maxPerAddress = Integer.parseInt(db.getProperty("auth.rateLimit.maxPerAddress", "100"));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default login rate limit settings", e);
+                    }
+                    instance = new LoginRateLimiter(Math.max(1L, windowSeconds), Math.max(1, buckets),
+                            Math.max(1, maxPerUsername), Math.max(1, maxPerAddress));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check and record a login attempt. Rejected attempts are not counted against the window.
+     * The attempt is counted before the window is checked, so concurrent attempts cannot all
+     * pass a check made before any of them was recorded.
+     */
+    public Decision tryAttempt(String username, String address) {
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        SlidingWindow userWindow = byUsername.computeIfAbsent(normalize(username), k -> new SlidingWindow(buckets, bucket));
+        if (!userWindow.tryAdd(bucket, maxPerUsername)) {
+            rejectedByUsername.increment();
+            return Decision.USERNAME_LIMITED;
+        }
+        if (address != null) {
+            SlidingWindow addressWindow = byAddress.computeIfAbsent(address, k -> new SlidingWindow(buckets, bucket));
+            if (!addressWindow.tryAdd(bucket, maxPerAddress)) {
+                userWindow.remove(bucket);
+                rejectedByAddress.increment();
+                return Decision.ADDRESS_LIMITED;
+            }
+        }
+        allowed.increment();
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Forget a username's failed attempts after it logs in successfully
+     */
+    public void onLoginSucceeded(String username) {
+        byUsername.remove(normalize(username));
+    }
+
+    /**
+     * Seconds until the oldest bucket leaves the window, for the Retry-After header
+     */
+    public long getRetryAfterSeconds() {
+        long intoBucket = System.currentTimeMillis() % bucketMillis;
+        return Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(bucketMillis - intoBucket));
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    @Override
+    public long getRejectedByUsernameCount() {
+        return rejectedByUsername.sum();
+    }
+
+    @Override
+    public long getRejectedByAddressCount() {
+        return rejectedByAddress.sum();
+    }
+
+    @Override
+    public int getTrackedUsernames() {
+        return byUsername.size();
+    }
+
+    @Override
+    public int getTrackedAddresses() {
+        return byAddress.size();
+    }
+
+    @Override
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    private void evictExpired() {
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        evictExpired(byUsername, bucket);
+        evictExpired(byAddress, bucket);
+    }
+
+    private void evictExpired(Map<String, SlidingWindow> windows, long bucket) {
+        Iterator<SlidingWindow> it = windows.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired(bucket)) {
+                it.remove();
+                evicted.incrementAndGet();
+            }
+        }
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("services:type=LoginRateLimiter");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Unable to register login rate limiter metrics", e);
+        }
+    }
+
+    /**
+     * Ring of per-bucket counters. A slot is reused once its bucket falls out of the window;
+     * the slot's bucket number tells whether its count still belongs to the window.
+     * An increment racing with a slot reset can be lost, which only makes the limit slightly lenient.
+     */
+    private static final class SlidingWindow {
+        private final AtomicLongArray slotBucket;
+        private final AtomicLongArray slotCount;
+        private volatile long lastBucket;
+
+        SlidingWindow(int buckets, long createdBucket) {
+            this.lastBucket = createdBucket;
+            this.slotBucket = new AtomicLongArray(buckets);
+            this.slotCount = new AtomicLongArray(buckets);
+            for (int i = 0; i < buckets; i++) {
+                slotBucket.set(i, -1L);
+            }
+        }
+
+        /**
+         * Count an attempt unless that takes the window over max
+         */
+        boolean tryAdd(long bucket, int max) {
+            increment(bucket);
+            if (count(bucket) > max) {
+                remove(bucket);
+                return false;
+            }
+            return true;
+        }
+
+        void increment(long bucket) {
+            int slot = (int) (bucket % slotBucket.length());
+            long current = slotBucket.get(slot);
+            // Whoever moves the slot to the new bucket also resets its count
+            if (current != bucket && slotBucket.compareAndSet(slot, current, bucket)) {
+                slotCount.set(slot, 0L);
+            }
+            slotCount.incrementAndGet(slot);
+            lastBucket = bucket;
+        }
+
+        /**
+         * Take back an attempt counted in the bucket, unless its slot has moved on since
+         */
+        void remove(long bucket) {
+            int slot = (int) (bucket % slotBucket.length());
+            if (slotBucket.get(slot) == bucket) {
+                slotCount.updateAndGet(slot, count -> count > 0 ? count - 1 : 0);
+            }
+        }
+
+        long count(long bucket) {
+            long total = 0;
+            long oldest = bucket - slotBucket.length();
+            for (int i = 0; i < slotBucket.length(); i++) {
+                if (slotBucket.get(i) > oldest) {
+                    total += slotCount.get(i);
+                }
+            }
+            return total;
+        }
+
+        boolean isExpired(long bucket) {
+            return bucket - lastBucket >= slotBucket.length();
+        }
+    }
+}
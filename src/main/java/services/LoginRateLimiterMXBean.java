@@ -0,0 +1,18 @@
+package services;
+
+/**
+ * LoginRateLimiterMXBean - JMX view of login throttling
+ */
+public interface LoginRateLimiterMXBean {
+    long getAllowedCount();
+
+    long getRejectedByUsernameCount();
+
+    long getRejectedByAddressCount();
+
+    int getTrackedUsernames();
+
+    int getTrackedAddresses();
+
+    long getEvictedCount();
+}
@@ -0,0 +1,125 @@
+package services;
+
+import database.DatabaseConnection;
+import database.UserDAO;
+import utils.PasswordUtil;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PasswordHashPolicy - Chooses the bcrypt cost for this host and migrates stored hashes to it.
+ * At startup it times a bcrypt hash and picks the highest cost whose verification stays within
+ * auth.bcrypt.targetMillis. After a successful login, a hash with a lower cost is rehashed in
+ * the background and written back through UserDAO.replacePasswordHash. Hashes are never
+ * lowered, so nodes that choose different costs do not rewrite each other's hashes.
+ */
+public class PasswordHashPolicy {
+    private static final Logger LOGGER = Logger.getLogger(PasswordHashPolicy.class.getName());
+    private static final int BENCHMARK_COST = 10;
+    private static volatile PasswordHashPolicy instance;
+
+    private final int cost;
+    private final UserDAO userDAO;
+    private final ThreadPoolExecutor rehashExecutor;
+
+    private PasswordHashPolicy(long targetMillis, int minCost, int maxCost) {
+        this.cost = chooseCost(targetMillis, minCost, maxCost);
+        this.userDAO = new UserDAO();
+        // Rehashing is opportunistic: when the queue is full the upgrade simply waits for a later login
+        this.rehashExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(256),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-rehash");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        PasswordUtil.setLogRounds(cost);
+        LOGGER.info("bcrypt cost set to " + cost + " (target " + targetMillis + "ms)");
+    }
+
+    public static PasswordHashPolicy getInstance() {
+        if (instance == null) {
+            synchronized (PasswordHashPolicy.class) {
+                if (instance == null) {
+                    long targetMillis = 250;
+                    int minCost = 10;
+                    int maxCost = 15;
+                    try {
+                        DatabaseConnection db = DatabaseConnection.getInstance();
+                        targetMillis = Long.parseLong(db.getProperty("auth.bcrypt.targetMillis", "250"));
+                        minCost = Integer.parseInt(db.getProperty("auth.bcrypt.minCost", "10"));
+                        maxCost = Integer.parseInt(db.getProperty("auth.bcrypt.maxCost", "15"));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default bcrypt policy settings", e);
+                    }
+                    instance = new PasswordHashPolicy(targetMillis, minCost, Math.max(minCost, maxCost));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Check whether a stored hash was made with a lower cost than the current policy
+     */
+    public boolean needsRehash(String hashedPassword) {
+        int storedCost = PasswordUtil.getLogRounds(hashedPassword);
+        return storedCost > 0 && storedCost < cost;
+    }
+
+    /**
+     * Rehash a verified password at the policy cost and store it, off the caller's thread.
+     * The new hash is written only if the stored one is still verifiedHash.
+     */
+    public void rehashAsync(int userId, String verifiedHash, String plainPassword) {
+        try {
+            rehashExecutor.execute(() -> {
+                try {
+                    String newHash = PasswordUtil.hashPassword(plainPassword, cost);
+                    if (userDAO.replacePasswordHash(userId, verifiedHash, newHash)) {
+                        LOGGER.info("Upgraded password hash to cost " + cost + " for user ID: " + userId);
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Password rehash failed for user ID: " + userId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("Rehash queue full, skipping upgrade for user ID: " + userId);
+        }
+    }
+
+    /**
+     * Each extra bcrypt round doubles the work, so time one hash and scale from there
+     */
+    private static int chooseCost(long targetMillis, int minCost, int maxCost) {
+        try {
+            PasswordUtil.hashPassword("benchmark-warmup", BENCHMARK_COST);
+            long start = System.nanoTime();
+            PasswordUtil.hashPassword("benchmark-password", BENCHMARK_COST);
+            double millis = Math.max(0.1, (System.nanoTime() - start) / 1_000_000.0);
+            int chosen = BENCHMARK_COST;
+            while (chosen < maxCost && millis * 2 <= targetMillis) {
+                millis *= 2;
+                chosen++;
+            }
+            while (chosen > minCost && millis > targetMillis) {
+                millis /= 2;
+                chosen--;
+            }
+            return Math.max(minCost, Math.min(maxCost, chosen));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "bcrypt benchmark failed, using default cost", e);
+            return PasswordUtil.DEFAULT_LOG_ROUNDS;
+        }
+    }
+}
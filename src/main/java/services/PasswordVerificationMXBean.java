@@ -0,0 +1,22 @@
+package services;
+
+/**
+ * PasswordVerificationMXBean - JMX view of the bcrypt verification pool
+ */
+public interface PasswordVerificationMXBean {
+    int getPoolSize();
+
+    int getActiveCount();
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+
+    long getCompletedCount();
+
+    long getRejectedCount();
+
+    double getAverageWaitMillis();
+
+    long getMaxWaitMillis();
+}
@@ -0,0 +1,155 @@
+package services;
+
+import database.DatabaseConnection;
+import utils.PasswordUtil;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.ObjectName;
+
+/**
+ * PasswordVerificationService - Runs bcrypt verification on a dedicated, bounded CPU pool.
+ * Keeps expensive password checks off servlet request threads. When the queue is full,
+ * new work is rejected immediately so callers can shed load instead of piling up.
+ * Queue depth and wait times are published over JMX as services:type=PasswordVerification.
+ */
+public class PasswordVerificationService implements PasswordVerificationMXBean {
+    private static final Logger LOGGER = Logger.getLogger(PasswordVerificationService.class.getName());
+    private static volatile PasswordVerificationService instance;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final AtomicLong rejected = new AtomicLong();
+    private final LongAdder waitNanosTotal = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private PasswordVerificationService(int threads, int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-verify-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        registerMBean();
+    }
+
+    public static PasswordVerificationService getInstance() {
+        if (instance == null) {
+            synchronized (PasswordVerificationService.class) {
+                if (instance == null) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    int queueCapacity = threads * 16;
+                    try {
+                        DatabaseConnection db = DatabaseConnection.getInstance();
+                        threads = Integer.parseInt(db.getProperty("auth.bcrypt.threads", String.valueOf(threads)));
+                        queueCapacity = Integer.parseInt(db.getProperty("auth.bcrypt.queueCapacity", String.valueOf(queueCapacity)));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default bcrypt pool settings", e);
+                    }
+                    instance = new PasswordVerificationService(Math.max(1, threads), Math.max(1, queueCapacity));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Verify a password on the bcrypt pool.
+     * @return a future completed with the verification result
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public CompletableFuture<Boolean> verifyAsync(String plainPassword, String hashedPassword) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                recordWait(System.nanoTime() - enqueuedAt);
+                try {
+                    result.complete(PasswordUtil.verifyPassword(plainPassword, hashedPassword));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public double getAverageWaitMillis() {
+        long count = started.sum();
+        return count == 0 ? 0.0 : waitNanosTotal.sum() / (count * 1_000_000.0);
+    }
+
+    @Override
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    private void recordWait(long waitNanos) {
+        started.increment();
+        waitNanosTotal.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("services:type=PasswordVerification");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Unable to register password verification metrics", e);
+        }
+    }
+}
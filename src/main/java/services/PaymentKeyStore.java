@@ -0,0 +1,127 @@
+package services;
+
+import database.DatabaseConnection;
+import database.PaymentKeyDAO;
+import models.PaymentIdempotencyKey;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PaymentKeyStore - Idempotency keys of posted payments.
+ * The most recent payment.idempotency.cacheSize keys are held in memory, so a retried callback
+ * is answered without a database round trip; older keys cost one primary key lookup in
+ * payment_idempotency_keys. Keys older than payment.idempotency.retentionDays are purged daily.
+ */
+public class PaymentKeyStore {
+    private static final Logger LOGGER = Logger.getLogger(PaymentKeyStore.class.getName());
+    private static volatile PaymentKeyStore instance;
+
+    private final PaymentKeyDAO keyDAO;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, PaymentIdempotencyKey> recent = new ConcurrentHashMap<>();
+    // Keys in the order they were remembered, oldest first, for eviction
+    private final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService purger;
+
+    private PaymentKeyStore(int maxSize, int retentionDays) {
+        this.keyDAO = new PaymentKeyDAO();
+        this.maxSize = maxSize;
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-key-purger");
+            t.setDaemon(true);
+            return t;
+        });
+        if (retentionDays > 0) {
+            purger.scheduleWithFixedDelay(() -> purge(retentionDays), 1, 24 * 60, TimeUnit.MINUTES);
+        }
+    }
+
+    public static PaymentKeyStore getInstance() {
+        if (instance == null) {
+            synchronized (PaymentKeyStore.class) {
+                if (instance == null) {
+                    int maxSize = 50_000;
+                    int retentionDays = 30;
+                    try {
+                        DatabaseConnection db = DatabaseConnection.getInstance();
+                        maxSize = Integer.parseInt(db.getProperty("payment.idempotency.cacheSize", String.valueOf(maxSize)));
+                        retentionDays = Integer.parseInt(db.getProperty("payment.idempotency.retentionDays", String.valueOf(retentionDays)));
+                    } catch (SQLException | NumberFormatException e) {
+                        LOGGER.log(Level.WARNING, "Using default idempotency key store settings", e);
+                    }
+                    instance = new PaymentKeyStore(maxSize, retentionDays);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get a recorded key, from memory if it is recent, or null if it is unknown
+     */
+    public PaymentIdempotencyKey find(String key) {
+        PaymentIdempotencyKey known = recent.get(key);
+        if (known != null) {
+            return known;
+        }
+        known = keyDAO.findKey(key);
+        if (known != null) {
+            remember(known);
+        }
+        return known;
+    }
+
+    /**
+     * Keep a key that has been committed to the table in memory
+     */
+    public void remember(PaymentIdempotencyKey key) {
+        if (maxSize <= 0 || recent.putIfAbsent(key.getKey(), key) != null) {
+            return;
+        }
+        order.add(key.getKey());
+        while (recent.size() > maxSize) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            recent.remove(oldest);
+        }
+    }
+
+    /**
+     * Record a key whose outcome changed no bill. If a concurrent request recorded the key first,
+     * its record is kept and returned, so every node answers repeats of the key the same way.
+     * @return the key as recorded, or null if it could not be recorded or read back
+     */
+    public PaymentIdempotencyKey save(PaymentIdempotencyKey key) {
+        int saved = keyDAO.save(key);
+        if (saved < 0) {
+            return null;
+        }
+        PaymentIdempotencyKey recorded = saved > 0 ? key : keyDAO.findKey(key.getKey());
+        if (recorded != null) {
+            remember(recorded);
+        }
+        return recorded;
+    }
+
+    private void purge(int retentionDays) {
+        try {
+            int purged = keyDAO.purgeOlderThan(retentionDays);
+            LOGGER.info("Purged " + purged + " idempotency keys older than " + retentionDays + " days");
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive
+            LOGGER.log(Level.SEVERE, "Idempotency key purge failed", e);
+        }
+    }
+
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+}
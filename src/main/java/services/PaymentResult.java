@@ -0,0 +1,13 @@
+package services;
+
+/**
+ * PaymentResult - Outcome of posting a payment status change with an idempotency key
+ */
+public enum PaymentResult {
+    APPLIED,
+    ALREADY_APPLIED,
+    BILL_NOT_FOUND,
+    KEY_REUSED,
+    CONFLICT,
+    FAILED
+}
@@ -0,0 +1,41 @@
+package services;
+
+import database.DoctorReviewDAO;
+import models.DoctorReview;
+
+/**
+ * ReviewService - Records patient reviews of doctors and keeps the doctor's statistics
+ * and in-memory rating aggregates in step.
+ */
+public class ReviewService {
+    private final DoctorReviewDAO reviewDAO;
+    private final DoctorStatisticsService statistics;
+    private final DoctorRatingService ratings;
+
+    public ReviewService() {
+        this(new DoctorReviewDAO(), DoctorStatisticsService.getInstance(), DoctorRatingService.getInstance());
+    }
+
+    public ReviewService(DoctorReviewDAO reviewDAO, DoctorStatisticsService statistics, DoctorRatingService ratings) {
+        this.reviewDAO = reviewDAO;
+        this.statistics = statistics;
+        this.ratings = ratings;
+    }
+
+    /**
+     * Save a review
+     * @throws IllegalArgumentException if the rating is outside 1..5
+     */
+    public boolean addReview(DoctorReview review) {
+        Integer rating = review.getRating();
+        if (rating != null && (rating < 1 || rating > 5)) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5: " + rating);
+        }
+        if (!reviewDAO.createReview(review)) {
+            return false;
+        }
+        statistics.onReviewAdded(review.getDoctorId(), rating);
+        ratings.onReviewAdded(review.getDoctorId(), rating);
+        return true;
+    }
+}
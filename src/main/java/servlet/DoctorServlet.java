@@ -5,30 +5,45 @@ import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.time.LocalTime;
 import java.util.List;
 import database.DoctorDAO;
 import database.DoctorScheduleDAO;
+import database.UserDAO;
+import models.Doctor;
 import models.User;
+import models.DoctorRating;
 import models.DoctorSchedule;
+import services.DoctorAvailabilityService;
+import services.DoctorRatingService;
+import utils.PasswordUtil;
 
 /**
  * DoctorServlet - Handles HTTP requests for doctor management
- * Supports GET (list/view/schedule) and POST (create/schedule update)
+ * Supports GET (list/view/schedule/top) and POST (create/schedule update/delete)
  * @author Madhuri Kumar
  * @version 1.0
  */
 @WebServlet("/doctors")
 public class DoctorServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 100;
     private DoctorDAO doctorDAO;
     private DoctorScheduleDAO scheduleDAO;
+    private UserDAO userDAO;
+    private DoctorRatingService ratingService;
 
     @Override
     public void init() throws ServletException {
         super.init();
         doctorDAO = new DoctorDAO();
         scheduleDAO = new DoctorScheduleDAO();
+        userDAO = new UserDAO();
+        // Builds the rating leaderboards now rather than on the first request
+        ratingService = DoctorRatingService.getInstance();
         getServletContext().log("DoctorServlet initialized");
     }
 
@@ -46,6 +61,9 @@ public class DoctorServlet extends HttpServlet {
                 case "SCHEDULE":
                     viewSchedule(request, response);
                     break;
+                case "TOP":
+                    listTopRated(request, response);
+                    break;
                 default:
                     listDoctors(request, response);
             }
@@ -62,6 +80,8 @@ public class DoctorServlet extends HttpServlet {
             String action = request.getParameter("action");
             if (action != null && action.equals("schedule")) {
                 updateSchedule(request, response);
+            } else if (action != null && action.equals("delete")) {
+                deleteDoctor(request, response);
             } else {
                 createDoctor(request, response);
             }
@@ -74,7 +94,7 @@ public class DoctorServlet extends HttpServlet {
     private void listDoctors(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            List<User> doctors = doctorDAO.getAllDoctors();
+            List<Doctor> doctors = doctorDAO.getAllDoctors();
             request.setAttribute("doctors", doctors);
             request.setAttribute("pageTitle", "All Doctors");
             request.getRequestDispatcher("/WEB-INF/views/doctors/list.jsp").forward(request, response);
@@ -87,10 +107,10 @@ public class DoctorServlet extends HttpServlet {
             throws ServletException, IOException {
         try {
             int doctorId = Integer.parseInt(request.getParameter("id"));
-            User doctor = doctorDAO.getDoctorById(doctorId);
+            Doctor doctor = doctorDAO.getDoctorById(doctorId);
 
             if (doctor != null) {
-                List<DoctorSchedule> schedules = scheduleDAO.getScheduleByDoctorId(doctorId);
+                List<DoctorSchedule> schedules = scheduleDAO.getScheduleByDoctor(doctorId);
                 request.setAttribute("doctor", doctor);
                 request.setAttribute("schedules", schedules);
                 request.setAttribute("pageTitle", "Doctor Profile");
@@ -103,12 +123,39 @@ public class DoctorServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Best rated doctors of a specialization: /doctors?action=top&specialization=...&limit=N
+     */
+    private void listTopRated(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String specialization = request.getParameter("specialization");
+        if (specialization == null || specialization.trim().isEmpty()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "specialization is required");
+            return;
+        }
+        try {
+            String limitParam = request.getParameter("limit");
+            int limit = limitParam != null ? Integer.parseInt(limitParam) : DEFAULT_TOP_LIMIT;
+            if (limit < 1) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            List<DoctorRating> topDoctors = ratingService.getTopRated(specialization, Math.min(limit, MAX_TOP_LIMIT));
+            request.setAttribute("topDoctors", topDoctors);
+            request.setAttribute("specialization", specialization);
+            request.setAttribute("pageTitle", "Top Rated Doctors");
+            request.getRequestDispatcher("/WEB-INF/views/doctors/top.jsp").forward(request, response);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        }
+    }
+
     private void viewSchedule(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
             int doctorId = Integer.parseInt(request.getParameter("id"));
-            User doctor = doctorDAO.getDoctorById(doctorId);
-            List<DoctorSchedule> schedules = scheduleDAO.getScheduleByDoctorId(doctorId);
+            Doctor doctor = doctorDAO.getDoctorById(doctorId);
+            List<DoctorSchedule> schedules = scheduleDAO.getScheduleByDoctor(doctorId);
 
             request.setAttribute("doctor", doctor);
             request.setAttribute("schedules", schedules);
@@ -135,12 +182,12 @@ public class DoctorServlet extends HttpServlet {
 
             User doctor = new User();
             doctor.setUsername(username);
-            doctor.setPasswordHash(password);
+            doctor.setPasswordHash(PasswordUtil.hashPassword(password));
             doctor.setEmail(email);
             doctor.setPhone(phone);
             doctor.setRole("doctor");
 
-            if (doctorDAO.createDoctor(doctor)) {
+            if (userDAO.createUser(doctor)) {
                 request.getSession().setAttribute("message", "Doctor created successfully!");
                 response.sendRedirect(request.getContextPath() + "/doctors");
             } else {
@@ -152,6 +199,31 @@ public class DoctorServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Delete a doctor account (admins only) and drop the doctor from the in-memory ratings
+     */
+    private void deleteDoctor(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        if (session == null || !"admin".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        try {
+            int doctorId = Integer.parseInt(request.getParameter("id"));
+            if (doctorDAO.deleteDoctor(doctorId)) {
+                ratingService.onDoctorDeleted(doctorId);
+                DoctorAvailabilityService.getInstance().onScheduleChanged(doctorId);
+                session.setAttribute("message", "Doctor deleted successfully!");
+            } else {
+                session.setAttribute("error", "Failed to delete doctor");
+            }
+            response.sendRedirect(request.getContextPath() + "/doctors");
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        }
+    }
+
     private void updateSchedule(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
@@ -163,10 +235,11 @@ public class DoctorServlet extends HttpServlet {
             DoctorSchedule schedule = new DoctorSchedule();
             schedule.setDoctorId(doctorId);
             schedule.setDayOfWeek(dayOfWeek);
-            schedule.setStartTime(startTime);
-            schedule.setEndTime(endTime);
+            schedule.setStartTime(LocalTime.parse(startTime));
+            schedule.setEndTime(LocalTime.parse(endTime));
 
             if (scheduleDAO.createSchedule(schedule)) {
+                DoctorAvailabilityService.getInstance().onScheduleChanged(doctorId);
                 request.getSession().setAttribute("message", "Schedule updated successfully!");
             } else {
                 request.getSession().setAttribute("error", "Failed to update schedule");
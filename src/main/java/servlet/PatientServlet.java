@@ -8,7 +8,10 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
 import database.PatientDAO;
+import database.UserDAO;
+import models.Patient;
 import models.User;
+import utils.PasswordUtil;
 
 /**
  * PatientServlet - Handles HTTP requests for patient management
@@ -20,11 +23,13 @@ import models.User;
 public class PatientServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
     private PatientDAO patientDAO;
+    private UserDAO userDAO;
 
     @Override
     public void init() throws ServletException {
         super.init();
         patientDAO = new PatientDAO();
+        userDAO = new UserDAO();
         getServletContext().log("PatientServlet initialized");
     }
 
@@ -70,7 +75,7 @@ public class PatientServlet extends HttpServlet {
     private void listPatients(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            List<User> patients = patientDAO.getAllPatients();
+            List<Patient> patients = patientDAO.getAllPatients();
             request.setAttribute("patients", patients);
             request.setAttribute("pageTitle", "All Patients");
             request.getRequestDispatcher("/WEB-INF/views/patients/list.jsp").forward(request, response);
@@ -88,7 +93,7 @@ public class PatientServlet extends HttpServlet {
                 return;
             }
             int patientId = Integer.parseInt(idParam);
-            User patient = patientDAO.getPatientById(patientId);
+            Patient patient = patientDAO.getPatientById(patientId);
 
             if (patient != null) {
                 request.setAttribute("patient", patient);
@@ -124,12 +129,12 @@ public class PatientServlet extends HttpServlet {
 
             User patient = new User();
             patient.setUsername(username);
-            patient.setPasswordHash(password);
+            patient.setPasswordHash(PasswordUtil.hashPassword(password));
             patient.setEmail(email);
             patient.setPhone(phone);
             patient.setRole("patient");
 
-            if (patientDAO.createPatient(patient)) {
+            if (userDAO.createUser(patient)) {
                 request.getSession().setAttribute("message", "Patient registered successfully!");
                 response.sendRedirect(request.getContextPath() + "/patients");
             } else {
@@ -148,7 +153,12 @@ public class PatientServlet extends HttpServlet {
             String email = request.getParameter("email");
             String phone = request.getParameter("phone");
 
-            if (patientDAO.updatePatient(patientId, email, phone)) {
+            Patient patient = new Patient();
+            patient.setId(patientId);
+            patient.setEmail(email);
+            patient.setPhone(phone);
+
+            if (patientDAO.updatePatient(patient)) {
                 request.getSession().setAttribute("message", "Patient updated successfully!");
             } else {
                 request.getSession().setAttribute("error", "Failed to update patient");
@@ -1,5 +1,8 @@
 package controller;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -7,25 +10,39 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import database.UserDAO;
 import models.User;
+import services.LoginRateLimiter;
+import services.PasswordHashPolicy;
+import services.PasswordVerificationService;
 import utils.PasswordUtil;
 
 /**
  * UserServlet - Handles authentication and user management
  * Supports login, logout, register, and profile operations
+ * Password checks run asynchronously on PasswordVerificationService so request threads are not held
  * @author Madhuri Kumar
  * @version 1.0
  */
-@WebServlet("/user")
+@WebServlet(value = "/user", asyncSupported = true)
 public class UserServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
+    private static final long LOGIN_TIMEOUT_MS = 10000;
+    private static final int SC_TOO_MANY_REQUESTS = 429;
     private UserDAO userDAO;
+    private PasswordVerificationService passwordVerifier;
+    private PasswordHashPolicy hashPolicy;
+    private LoginRateLimiter rateLimiter;
 
     @Override
     public void init() throws ServletException {
         super.init();
         userDAO = new UserDAO();
+        hashPolicy = PasswordHashPolicy.getInstance();
+        passwordVerifier = PasswordVerificationService.getInstance();
+        rateLimiter = LoginRateLimiter.getInstance();
         getServletContext().log("UserServlet initialized");
     }
 
@@ -95,35 +112,130 @@ public class UserServlet extends HttpServlet {
                 return;
             }
 
+            // Throttled attempts are refused before any lookup or bcrypt work
+            LoginRateLimiter.Decision decision = rateLimiter.tryAttempt(username, request.getRemoteAddr());
+            if (decision != LoginRateLimiter.Decision.ALLOWED) {
+                getServletContext().log("Login throttled (" + decision + ") for username: " + username
+                        + " from " + request.getRemoteAddr());
+                response.setHeader("Retry-After", String.valueOf(rateLimiter.getRetryAfterSeconds()));
+                response.sendError(SC_TOO_MANY_REQUESTS, "Too many login attempts, please try again later");
+                return;
+            }
+
             User user = userDAO.getUserByUsername(username);
+            if (user == null) {
+                rejectLogin(request, response, username);
+                return;
+            }
 
-            if (user != null && PasswordUtil.verifyPassword(password, user.getPasswordHash())) {
-                HttpSession session = request.getSession();
-                session.setAttribute("user", user);
-                session.setAttribute("userId", user.getId());
-                session.setAttribute("userRole", user.getRole());
-                session.setAttribute("username", user.getUsername());
-                
-                getServletContext().log("User logged in: " + username);
-                
-                // Redirect based on role
-                if ("admin".equals(user.getRole())) {
-                    response.sendRedirect(request.getContextPath() + "/admin/dashboard");
-                } else if ("doctor".equals(user.getRole())) {
-                    response.sendRedirect(request.getContextPath() + "/doctor/dashboard");
-                } else {
-                    response.sendRedirect(request.getContextPath() + "/patient/dashboard");
+            // Release the container thread while bcrypt runs on the verification pool
+            AsyncContext async = request.startAsync();
+            async.setTimeout(LOGIN_TIMEOUT_MS);
+            AtomicBoolean finished = new AtomicBoolean();
+            async.addListener(new LoginTimeoutListener(finished));
+            try {
+                passwordVerifier.verifyAsync(password, user.getPasswordHash())
+                        .whenComplete((matches, error) -> finishLogin(async, finished, user, password, matches, error));
+            } catch (RejectedExecutionException e) {
+                if (finished.compareAndSet(false, true)) {
+                    getServletContext().log("Login rejected, password verification pool saturated");
+                    response.setHeader("Retry-After", "1");
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    async.complete();
                 }
-            } else {
-                request.getSession().setAttribute("error", "Invalid username or password");
-                response.sendRedirect(request.getContextPath() + "/user?action=login");
-                getServletContext().log("Failed login attempt for username: " + username);
             }
         } catch (Exception e) {
             throw new ServletException("Error during login", e);
         }
     }
 
+    private void finishLogin(AsyncContext async, AtomicBoolean finished, User user, String password,
+                             Boolean matches, Throwable error) {
+        if (!finished.compareAndSet(false, true)) {
+            return; // already timed out
+        }
+        HttpServletRequest request = (HttpServletRequest) async.getRequest();
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        try {
+            if (error != null) {
+                getServletContext().log("Error during login", error);
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            } else if (Boolean.TRUE.equals(matches)) {
+                if (hashPolicy.needsRehash(user.getPasswordHash())) {
+                    hashPolicy.rehashAsync(user.getId(), user.getPasswordHash(), password);
+                }
+                rateLimiter.onLoginSucceeded(user.getUsername());
+                completeLogin(request, response, user);
+            } else {
+                rejectLogin(request, response, user.getUsername());
+            }
+        } catch (Exception e) {
+            getServletContext().log("Error completing login", e);
+        } finally {
+            async.complete();
+        }
+    }
+
+    private void completeLogin(HttpServletRequest request, HttpServletResponse response, User user)
+            throws IOException {
+        HttpSession session = request.getSession();
+        session.setAttribute("user", user);
+        session.setAttribute("userId", user.getId());
+        session.setAttribute("userRole", user.getRole());
+        session.setAttribute("username", user.getUsername());
+        
+        getServletContext().log("User logged in: " + user.getUsername());
+        
+        // Redirect based on role
+        if ("admin".equals(user.getRole())) {
+            response.sendRedirect(request.getContextPath() + "/admin/dashboard");
+        } else if ("doctor".equals(user.getRole())) {
+            response.sendRedirect(request.getContextPath() + "/doctor/dashboard");
+        } else {
+            response.sendRedirect(request.getContextPath() + "/patient/dashboard");
+        }
+    }
+
+    private void rejectLogin(HttpServletRequest request, HttpServletResponse response, String username)
+            throws IOException {
+        request.getSession().setAttribute("error", "Invalid username or password");
+        response.sendRedirect(request.getContextPath() + "/user?action=login");
+        getServletContext().log("Failed login attempt for username: " + username);
+    }
+
+    /**
+     * Answers 503 if password verification does not finish within LOGIN_TIMEOUT_MS
+     */
+    private final class LoginTimeoutListener implements AsyncListener {
+        private final AtomicBoolean finished;
+
+        LoginTimeoutListener(AtomicBoolean finished) {
+            this.finished = finished;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            if (finished.compareAndSet(false, true)) {
+                getServletContext().log("Login timed out waiting for password verification");
+                ((HttpServletResponse) event.getAsyncContext().getResponse())
+                        .sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
     private void handleRegister(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
@@ -156,7 +268,7 @@ public class UserServlet extends HttpServlet {
             if (userDAO.createUser(user)) {
                 request.getSession().setAttribute("message", "Registration successful! Please log in.");
                 response.sendRedirect(request.getContextPath() + "/user?action=login");
-                getServletContext().log("New user registered: " + username);
+                getServletContext().log("New user registered: " + username + " (ID " + user.getId() + ")");
             } else {
                 request.getSession().setAttribute("error", "Registration failed. Please try again.");
                 response.sendRedirect(request.getContextPath() + "/user?action=register");
@@ -9,7 +9,8 @@ import java.util.logging.Logger;
  */
 public class PasswordUtil {
     private static final Logger logger = Logger.getLogger(PasswordUtil.class.getName());
-    private static final int LOG_ROUNDS = 12; // Number of log rounds for bcrypt (higher = slower, more secure)
+    public static final int DEFAULT_LOG_ROUNDS = 12; // Number of log rounds for bcrypt (higher = slower, more secure)
+    private static volatile int logRounds = DEFAULT_LOG_ROUNDS; // Tuned at startup by PasswordHashPolicy
     
     /**
      * Hashes a plain-text password using bcrypt with automatic salting.
@@ -19,6 +20,17 @@ public class PasswordUtil {
      * @throws RuntimeException if password hashing fails or input is invalid.
      */
     public static String hashPassword(String plainPassword) {
+        return hashPassword(plainPassword, logRounds);
+    }
+
+    /**
+     * Hashes a plain-text password using bcrypt with an explicit cost.
+     * @param plainPassword The plain-text password to hash (must not be null or empty)
+     * @param rounds The bcrypt log rounds (cost) to use
+     * @return The hashed password string
+     * @throws RuntimeException if password hashing fails or input is invalid.
+     */
+    public static String hashPassword(String plainPassword, int rounds) {
         if (plainPassword == null || plainPassword.isEmpty()) {
             logger.severe("Password cannot be null or empty.");
             throw new RuntimeException("Password cannot be null or empty.");
@@ -26,7 +38,7 @@ public class PasswordUtil {
         
         try {
             // BCrypt automatically generates a random salt and includes it in the output
-            String hashedPassword = BCrypt.hashpw(plainPassword, BCrypt.gensalt(LOG_ROUNDS));
+            String hashedPassword = BCrypt.hashpw(plainPassword, BCrypt.gensalt(rounds));
             logger.info("Password hashed successfully.");
             return hashedPassword;
         } catch (Exception e) {
@@ -91,6 +103,45 @@ public class PasswordUtil {
      * @return A bcrypt salt string
      */
     public static String generateSalt() {
-        return BCrypt.gensalt(LOG_ROUNDS);
+        return BCrypt.gensalt(logRounds);
+    }
+
+    /**
+     * Gets the bcrypt cost used for new hashes.
+     * @return The current log rounds
+     */
+    public static int getLogRounds() {
+        return logRounds;
+    }
+
+    /**
+     * Sets the bcrypt cost used for new hashes.
+     * @param rounds The log rounds, between 4 and 31
+     */
+    public static void setLogRounds(int rounds) {
+        if (rounds < 4 || rounds > 31) {
+            throw new IllegalArgumentException("bcrypt log rounds must be between 4 and 31: " + rounds);
+        }
+        logRounds = rounds;
+    }
+
+    /**
+     * Reads the cost from a stored bcrypt hash (the "12" in "$2a$12$...").
+     * @param hashedPassword The bcrypt hash
+     * @return The log rounds, or -1 if the hash is not in bcrypt format
+     */
+    public static int getLogRounds(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = hashedPassword.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > hashedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(costStart, costStart + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
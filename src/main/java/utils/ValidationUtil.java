@@ -140,6 +140,6 @@ public class ValidationUtil {
             return "";
         }
         // Remove common SQL injection characters (for display only)
-        return input.replaceAll("[;'\\"\\-\\-]", "").trim();
+        return input.replaceAll("[;'\"\\-]", "").trim();
     }
 }
@@ -0,0 +1,2 @@
+-- AppointmentDAO.getAppointmentsPage: keyset pagination in (appointment_date, appointment_time, id) order
+CREATE INDEX idx_appointments_date_time ON appointments (appointment_date, appointment_time);
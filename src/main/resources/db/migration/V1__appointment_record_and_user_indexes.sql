@@ -0,0 +1,13 @@
+-- Composite indexes for the DAO query predicates on the core tables
+
+-- AppointmentDAO.getAppointmentsByPatient, AppointmentViewDAO patient listings (ordered by date, time)
+CREATE INDEX idx_appointments_patient_date ON appointments (patient_id, appointment_date, appointment_time);
+
+-- AppointmentDAO.countActiveAppointments and getUpcomingAppointmentsByDoctor: covers doctor, date and status
+CREATE INDEX idx_appointments_doctor_date_status ON appointments (doctor_id, appointment_date, status);
+
+-- MedicalRecordDAO.getRecordsByPatient (newest first)
+CREATE INDEX idx_medical_records_patient_date ON medical_records (patient_id, record_date);
+
+-- DoctorDAO / PatientDAO listings filter users by role
+CREATE INDEX idx_users_role_username ON users (role, username);
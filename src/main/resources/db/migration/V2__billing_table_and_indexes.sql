@@ -0,0 +1,19 @@
+-- The billing table from schema_extended.sql, created here when the extended schema was not installed
+CREATE TABLE IF NOT EXISTS billing (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    appointment_id INT NOT NULL,
+    patient_id INT NOT NULL,
+    doctor_id INT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    service_description VARCHAR(255),
+    payment_status ENUM('pending', 'completed', 'cancelled') DEFAULT 'pending',
+    payment_date DATETIME,
+    bill_date DATETIME DEFAULT CURRENT_TIMESTAMP,
+    notes TEXT,
+    FOREIGN KEY (appointment_id) REFERENCES appointments(id) ON DELETE CASCADE,
+    FOREIGN KEY (patient_id) REFERENCES users(id),
+    FOREIGN KEY (doctor_id) REFERENCES users(id)
+);
+
+-- Patient billing history and outstanding balance lookups
+CREATE INDEX idx_billing_patient_status ON billing (patient_id, payment_status);
@@ -0,0 +1,44 @@
+-- The doctor_reviews table from schema_extended.sql, created here when the extended schema was not installed
+CREATE TABLE IF NOT EXISTS doctor_reviews (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    doctor_id INT NOT NULL,
+    patient_id INT NOT NULL,
+    appointment_id INT,
+    rating INT CHECK (rating >= 1 AND rating <= 5),
+    review_text TEXT,
+    review_date DATETIME DEFAULT CURRENT_TIMESTAMP,
+    is_verified BOOLEAN DEFAULT FALSE,
+    FOREIGN KEY (doctor_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (patient_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (appointment_id) REFERENCES appointments(id) ON DELETE SET NULL
+);
+
+-- Replace the doctor_statistics view with one row per doctor, kept up to date by DoctorStatisticsService.
+-- The average rating is rating_sum / rating_count.
+DROP VIEW IF EXISTS doctor_statistics;
+
+CREATE TABLE IF NOT EXISTS doctor_statistics (
+    doctor_id INT PRIMARY KEY,
+    total_appointments INT NOT NULL DEFAULT 0,
+    cancelled_appointments INT NOT NULL DEFAULT 0,
+    total_reviews INT NOT NULL DEFAULT 0,
+    rating_count INT NOT NULL DEFAULT 0,
+    rating_sum INT NOT NULL DEFAULT 0,
+    total_revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (doctor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Initial fill; each total is a separate indexed subquery, so reviews and bills are not multiplied together
+INSERT INTO doctor_statistics (doctor_id, total_appointments, cancelled_appointments,
+                               total_reviews, rating_count, rating_sum, total_revenue)
+SELECT d.id,
+    (SELECT COUNT(*) FROM appointments a WHERE a.doctor_id = d.id),
+    (SELECT COUNT(*) FROM appointments a WHERE a.doctor_id = d.id AND a.status = 'cancelled'),
+    (SELECT COUNT(*) FROM doctor_reviews r WHERE r.doctor_id = d.id),
+    (SELECT COUNT(r.rating) FROM doctor_reviews r WHERE r.doctor_id = d.id),
+    (SELECT COALESCE(SUM(r.rating), 0) FROM doctor_reviews r WHERE r.doctor_id = d.id),
+    (SELECT COALESCE(SUM(b.amount), 0) FROM billing b WHERE b.doctor_id = d.id AND b.payment_status = 'completed')
+FROM users d
+WHERE d.role = 'doctor'
+ON DUPLICATE KEY UPDATE doctor_id = doctor_id;
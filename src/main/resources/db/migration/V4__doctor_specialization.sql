@@ -0,0 +1,2 @@
+-- Doctors' specialization, used to group the rating leaderboards
+ALTER TABLE users ADD COLUMN specialization VARCHAR(100) NULL;
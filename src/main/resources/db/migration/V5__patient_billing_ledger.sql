@@ -0,0 +1,24 @@
+-- Replace the patient_billing_history view with one row per patient, updated in the same transaction
+-- as each bill insert and payment status change (BillingDAO). The balance owed is total_pending.
+DROP VIEW IF EXISTS patient_billing_history;
+
+CREATE TABLE IF NOT EXISTS patient_billing_ledger (
+    patient_id INT PRIMARY KEY,
+    total_bills INT NOT NULL DEFAULT 0,
+    total_paid DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    total_pending DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    total_cancelled DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (patient_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Initial fill from the existing bills; patients without bills have no row
+INSERT INTO patient_billing_ledger (patient_id, total_bills, total_paid, total_pending, total_cancelled)
+SELECT patient_id,
+    COUNT(*),
+    COALESCE(SUM(CASE WHEN payment_status = 'completed' THEN amount ELSE 0 END), 0),
+    COALESCE(SUM(CASE WHEN payment_status = 'pending' THEN amount ELSE 0 END), 0),
+    COALESCE(SUM(CASE WHEN payment_status = 'cancelled' THEN amount ELSE 0 END), 0)
+FROM billing
+GROUP BY patient_id
+ON DUPLICATE KEY UPDATE patient_id = patient_id;
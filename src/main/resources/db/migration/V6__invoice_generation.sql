@@ -0,0 +1,9 @@
+-- Consultation fee billed by InvoiceService for each completed appointment; doctors without one are not invoiced
+ALTER TABLE users ADD COLUMN consultation_fee DECIMAL(10, 2) NULL;
+
+-- At most one bill per appointment, so invoice runs repeated after a failure cannot bill twice.
+-- Fails if duplicate bills already exist; remove them before upgrading.
+CREATE UNIQUE INDEX uk_billing_appointment ON billing (appointment_id);
+
+-- AppointmentDAO.getUninvoicedCompletedAppointments: doctor and status, then id order from the primary key
+CREATE INDEX idx_appointments_doctor_status ON appointments (doctor_id, status);
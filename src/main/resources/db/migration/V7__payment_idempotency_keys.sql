@@ -0,0 +1,11 @@
+-- Idempotency keys of posted payments with the outcome returned for them, so a retried gateway
+-- callback gets the same answer without touching the bill. Rows older than
+-- payment.idempotency.retentionDays are purged by PaymentKeyStore.
+CREATE TABLE IF NOT EXISTS payment_idempotency_keys (
+    idempotency_key VARCHAR(64) CHARACTER SET ascii COLLATE ascii_bin PRIMARY KEY,
+    bill_id INT NOT NULL,
+    payment_status VARCHAR(20) NOT NULL,
+    result VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_payment_keys_created (created_at)
+);
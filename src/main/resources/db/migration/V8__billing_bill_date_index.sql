@@ -0,0 +1,2 @@
+-- BillingExportDAO.streamBills: bills in a bill_date range, in (bill_date, id) order
+CREATE INDEX idx_billing_bill_date ON billing (bill_date);
@@ -0,0 +1,6 @@
+-- 1 while the appointment holds its slot, NULL once cancelled (NULLs never collide in a unique key)
+ALTER TABLE appointments ADD COLUMN active_slot TINYINT AS (IF(status = 'cancelled', NULL, 1)) STORED;
+
+-- AppointmentDAO.createAppointment: at most one active booking per doctor slot.
+-- Fails if double bookings already exist; cancel the duplicates before upgrading.
+CREATE UNIQUE INDEX uk_appointments_active_slot ON appointments (doctor_id, appointment_date, appointment_time, active_slot);